@@ -0,0 +1,30 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class AccessLogConfig {
+    @Value("${gateway.access-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${gateway.access-log.slow-threshold-ms:1000}")
+    private long slowThresholdMillis;
+
+    @Value("${gateway.access-log.buffer-size:8192}")
+    private int bufferSize;
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public AccessLogWriter accessLogWriter(MeterRegistry meterRegistry) {
+        return new AccessLogWriter(bufferSize, meterRegistry);
+    }
+
+    @Bean
+    public AccessLogFilter accessLogFilter(AccessLogWriter accessLogWriter, MeterRegistry meterRegistry) {
+        return new AccessLogFilter(accessLogWriter, meterRegistry, sampleRate, Duration.ofMillis(slowThresholdMillis));
+    }
+}
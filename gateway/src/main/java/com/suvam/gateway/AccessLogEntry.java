@@ -0,0 +1,22 @@
+package com.suvam.gateway;
+
+//one line of the access log, reason says why this request was picked: sampled, error or slow
+public record AccessLogEntry(long timestampMillis, String method, String path, String routeId, int status,
+                             String instance, long durationNanos, long firstByteNanos, String reason) {
+
+    public String format() {
+        return "route=" + routeId
+                + " method=" + method
+                + " path=" + path
+                + " status=" + status
+                + " instance=" + instance
+                + " duration_ms=" + millis(durationNanos)
+                + " ttfb_ms=" + (firstByteNanos < 0 ? "-" : millis(firstByteNanos))
+                + " reason=" + reason
+                + " ts=" + timestampMillis;
+    }
+
+    private static String millis(long nanos) {
+        return String.valueOf(Math.round(nanos / 100_000.0) / 10.0);
+    }
+}
@@ -0,0 +1,114 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/*
+ * Times every request into a per-route latency histogram and writes a sample of them to the access
+ * log through AccessLogWriter. Server errors and slow requests are always logged. Runs first, so
+ * cache hits, collapsed requests and shed requests are all counted.
+ */
+public class AccessLogFilter implements GlobalFilter, Ordered {
+    public static final int ORDER = Ordered.HIGHEST_PRECEDENCE;
+    //client went away before the response was done, as nginx logs it
+    private static final int CLIENT_CLOSED = 499;
+
+    private final AccessLogWriter writer;
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final long slowNanos;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public AccessLogFilter(AccessLogWriter writer, MeterRegistry meterRegistry, double sampleRate, Duration slowThreshold) {
+        this.writer = writer;
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.slowNanos = slowThreshold.toNanos();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        long start = System.nanoTime();
+        AtomicLong firstByte = new AtomicLong(-1);
+        exchange.getResponse().beforeCommit(() -> {
+            firstByte.compareAndSet(-1, System.nanoTime() - start);
+            return Mono.empty();
+        });
+        return chain.filter(exchange).doFinally(signal -> record(exchange, signal, start, firstByte.get()));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private void record(ServerWebExchange exchange, SignalType signal, long start, long firstByteNanos) {
+        long duration = System.nanoTime() - start;
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        String routeId = route == null ? "none" : route.getId();
+        int status = status(exchange, signal);
+
+        timer(routeId, status).record(duration, TimeUnit.NANOSECONDS);
+
+        String reason;
+        if (status >= 500) reason = "error";
+        else if (duration >= slowNanos) reason = "slow";
+        else if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) reason = "sampled";
+        else return;
+
+        ServerHttpRequest request = exchange.getRequest();
+        writer.submit(new AccessLogEntry(System.currentTimeMillis(), request.getMethod().name(),
+                request.getPath().value(), routeId, status, instance(exchange), duration, firstByteNanos, reason));
+    }
+
+    private static int status(ServerWebExchange exchange, SignalType signal) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (signal == SignalType.CANCEL) return CLIENT_CLOSED;
+        if (signal == SignalType.ON_ERROR && (status == null || !exchange.getResponse().isCommitted())) return 500;
+        return status == null ? 200 : status.value();
+    }
+
+    //the instance the load balancer picked, otherwise whatever host the route pointed at
+    private static String instance(ServerWebExchange exchange) {
+        Response<ServiceInstance> lbResponse = exchange.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse != null && lbResponse.hasServer()) {
+            ServiceInstance instance = lbResponse.getServer();
+            return instance.getHost() + ":" + instance.getPort();
+        }
+        URI requestUrl = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        return requestUrl == null || requestUrl.getHost() == null ? "-" : requestUrl.getHost() + ":" + requestUrl.getPort();
+    }
+
+    private Timer timer(String routeId, int status) {
+        String series = (status / 100) + "xx";
+        return timers.computeIfAbsent(routeId + "|" + series, key -> Timer.builder("gateway.route.requests")
+                .tag("route", routeId)
+                .tag("status", series)
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry));
+    }
+}
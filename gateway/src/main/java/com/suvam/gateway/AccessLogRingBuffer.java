@@ -0,0 +1,65 @@
+package com.suvam.gateway;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ * Bounded lock-free queue for many producers and one consumer, after Dmitry Vyukov's bounded queue.
+ * Each slot carries a sequence number that says whether it is free for the producer claiming that
+ * position or filled for the consumer, so producers only contend on one CAS and never block; when
+ * the buffer is full offer simply returns false.
+ */
+class AccessLogRingBuffer<T> {
+    private final AtomicReferenceArray<T> slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    //only the consumer thread touches head
+    private long head;
+
+    AccessLogRingBuffer(int capacity) {
+        int size = 2;
+        while (size < capacity) size <<= 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+    }
+
+    boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.set(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                //the consumer has not freed this slot since the last lap, the buffer is full
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    //consumer thread only
+    T poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) return null;
+        T item = slots.get(index);
+        slots.set(index, null);
+        sequences.set(index, head + mask + 1);
+        head++;
+        return item;
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
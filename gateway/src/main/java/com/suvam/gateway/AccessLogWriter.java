@@ -0,0 +1,75 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/*
+ * Moves access log entries off the event loop. Request threads only put the entry into a lock-free
+ * ring buffer, one background thread formats and logs them. When the writer falls behind the entries
+ * are dropped and counted rather than slowing requests down.
+ */
+public class AccessLogWriter implements AutoCloseable {
+    private static final Logger accessLog = LoggerFactory.getLogger("gateway.access");
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final AccessLogRingBuffer<AccessLogEntry> buffer;
+    private final Consumer<AccessLogEntry> sink;
+    private final Counter dropped;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    public AccessLogWriter(int capacity, MeterRegistry meterRegistry) {
+        this(capacity, entry -> accessLog.info(entry.format()), meterRegistry);
+    }
+
+    AccessLogWriter(int capacity, Consumer<AccessLogEntry> sink, MeterRegistry meterRegistry) {
+        this.buffer = new AccessLogRingBuffer<>(capacity);
+        this.sink = sink;
+        this.dropped = Counter.builder("gateway.accesslog.dropped").register(meterRegistry);
+        Gauge.builder("gateway.accesslog.capacity", buffer, AccessLogRingBuffer::capacity).register(meterRegistry);
+        this.thread = Thread.ofPlatform().name("access-log-writer").daemon(true).unstarted(this::run);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    public void submit(AccessLogEntry entry) {
+        if (!buffer.offer(entry)) dropped.increment();
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(thread);
+        thread.join(TimeUnit.SECONDS.toMillis(5));
+        if (!thread.isAlive()) drain();
+    }
+
+    //writes everything buffered so far, called by the writer thread only
+    int drain() {
+        int written = 0;
+        for (AccessLogEntry entry = buffer.poll(); entry != null; entry = buffer.poll()) {
+            try {
+                sink.accept(entry);
+            } catch (RuntimeException e) {
+                //a broken appender must not kill the writer
+            }
+            written++;
+        }
+        return written;
+    }
+
+    private void run() {
+        while (running) {
+            if (drain() == 0) LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.suvam.gateway;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/*
+ * Passes the response body through to the client untouched while keeping a copy of it. The copy is
+ * handed to onComplete once the whole body has been written, and dropped as soon as it grows past
+ * maxBytes. Streamed responses (writeAndFlushWith) are never captured.
+ */
+public class BodyCaptureResponseDecorator extends ServerHttpResponseDecorator {
+    private final int maxBytes;
+    private final Consumer<byte[]> onComplete;
+
+    public BodyCaptureResponseDecorator(ServerHttpResponse delegate, int maxBytes, Consumer<byte[]> onComplete) {
+        super(delegate);
+        this.maxBytes = maxBytes;
+        this.onComplete = onComplete;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        ByteArrayOutputStream copy = new ByteArrayOutputStream();
+        boolean[] overflow = new boolean[1];
+        Flux<? extends DataBuffer> tee = Flux.from(body).doOnNext(buffer -> {
+            if (overflow[0]) return;
+            if (copy.size() + buffer.readableByteCount() > maxBytes) {
+                overflow[0] = true;
+                copy.reset();
+                return;
+            }
+            //reads through views, the buffer's own read position is left alone for the client write
+            try (DataBuffer.ByteBufferIterator views = buffer.readableByteBuffers()) {
+                views.forEachRemaining(view -> copy.writeBytes(bytesOf(view)));
+            }
+        });
+        return super.writeWith(tee).doOnSuccess(done -> {
+            if (!overflow[0]) onComplete.accept(copy.toByteArray());
+        });
+    }
+
+    private static byte[] bytesOf(ByteBuffer view) {
+        byte[] bytes = new byte[view.remaining()];
+        view.duplicate().get(bytes);
+        return bytes;
+    }
+}
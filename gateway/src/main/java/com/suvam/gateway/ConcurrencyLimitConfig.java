@@ -0,0 +1,36 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ConcurrencyLimitConfig {
+    @Value("${gateway.concurrency-limit.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${gateway.concurrency-limit.min-limit:5}")
+    private int minLimit;
+
+    @Value("${gateway.concurrency-limit.max-limit:500}")
+    private int maxLimit;
+
+    @Value("${gateway.concurrency-limit.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${gateway.concurrency-limit.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${gateway.concurrency-limit.long-window:600}")
+    private int longWindow;
+
+    @Value("${gateway.concurrency-limit.short-window:10}")
+    private int shortWindow;
+
+    @Bean
+    public ConcurrencyLimits concurrencyLimits(MeterRegistry meterRegistry) {
+        return new ConcurrencyLimits(() -> new GradientConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                rttTolerance, smoothing, longWindow, shortWindow), meterRegistry);
+    }
+}
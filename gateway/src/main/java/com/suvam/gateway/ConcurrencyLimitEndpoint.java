@@ -0,0 +1,21 @@
+package com.suvam.gateway;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+//GET /actuator/concurrencylimits, current limit, in-flight requests, RTTs and shed count per route
+@Component
+@Endpoint(id = "concurrencylimits")
+public class ConcurrencyLimitEndpoint {
+    @Autowired
+    private ConcurrencyLimits concurrencyLimits;
+
+    @ReadOperation
+    public Map<String, ConcurrencyLimits.RouteStats> concurrencyLimits() {
+        return concurrencyLimits.snapshot();
+    }
+}
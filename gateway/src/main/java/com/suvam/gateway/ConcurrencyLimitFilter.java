@@ -0,0 +1,62 @@
+package com.suvam.gateway;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebHandler;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/*
+ * Sheds requests beyond the route's adaptive concurrency limit before they reach the downstream
+ * service. A shed request is forwarded to the route's FallbackController endpoint, the same place
+ * the circuit breaker sends it, and gets a 503 with Retry-After.
+ */
+public class ConcurrencyLimitFilter implements GatewayFilter {
+    private final ConcurrencyLimits.RouteLimit routeLimit;
+    private final String fallbackPath;
+    private final Supplier<WebHandler> fallbackHandler;
+    private final List<String> bypassPaths;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimits.RouteLimit routeLimit, String fallbackPath,
+                                  Supplier<WebHandler> fallbackHandler, List<String> bypassPaths) {
+        this.routeLimit = routeLimit;
+        this.fallbackPath = fallbackPath;
+        this.fallbackHandler = fallbackHandler;
+        this.bypassPaths = bypassPaths;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        //long lived streams would hold a slot and report a meaningless RTT
+        if (bypassPaths.contains(exchange.getRequest().getPath().value())) {
+            return chain.filter(exchange);
+        }
+
+        GradientConcurrencyLimit limit = routeLimit.limit();
+        if (!limit.tryAcquire()) {
+            routeLimit.shed().increment();
+            return forwardToFallback(exchange);
+        }
+        routeLimit.accepted().increment();
+
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            if (signal == SignalType.CANCEL) limit.releaseWithoutSample();
+            else limit.release(System.nanoTime() - start);
+        });
+    }
+
+    private Mono<Void> forwardToFallback(ServerWebExchange exchange) {
+        ServerWebExchangeUtils.reset(exchange);
+        exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        ServerHttpRequest request = exchange.getRequest().mutate().path(fallbackPath).build();
+        return fallbackHandler.get().handle(exchange.mutate().request(request).build());
+    }
+}
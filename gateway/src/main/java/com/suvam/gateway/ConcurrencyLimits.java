@@ -0,0 +1,65 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+//one GradientConcurrencyLimit per route with its gauges and counters
+public class ConcurrencyLimits {
+
+    public record RouteLimit(GradientConcurrencyLimit limit, Counter accepted, Counter shed) {
+    }
+
+    public record RouteStats(int limit, int inflight, double shortRttMillis, double longRttMillis,
+                             long accepted, long shed) {
+    }
+
+    private final Supplier<GradientConcurrencyLimit> limitFactory;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteLimit> routes = new ConcurrentHashMap<>();
+
+    public ConcurrencyLimits(Supplier<GradientConcurrencyLimit> limitFactory, MeterRegistry meterRegistry) {
+        this.limitFactory = limitFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public RouteLimit forRoute(String routeId) {
+        return routes.computeIfAbsent(routeId, this::register);
+    }
+
+    //what the concurrencylimits actuator endpoint shows
+    public Map<String, RouteStats> snapshot() {
+        Map<String, RouteStats> stats = new TreeMap<>();
+        routes.forEach((routeId, route) -> stats.put(routeId, new RouteStats(
+                route.limit().getLimit(),
+                route.limit().getInflight(),
+                route.limit().getShortRttNanos() / 1_000_000,
+                route.limit().getLongRttNanos() / 1_000_000,
+                (long) route.accepted().count(),
+                (long) route.shed().count())));
+        return stats;
+    }
+
+    private RouteLimit register(String routeId) {
+        GradientConcurrencyLimit limit = limitFactory.get();
+        Gauge.builder("gateway.concurrency.limit", limit, GradientConcurrencyLimit::getLimit)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limit, GradientConcurrencyLimit::getInflight)
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return new RouteLimit(limit, counter(routeId, "accepted"), counter(routeId, "shed"));
+    }
+
+    private Counter counter(String routeId, String outcome) {
+        return Counter.builder("gateway.concurrency.requests")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -2,25 +2,26 @@ package com.suvam.gateway;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Collections;
 import java.util.List;
 
+//reached by forward from a route's breaker, so it has to answer whatever method the client used
 @RestController
 public class FallbackController {
-    @GetMapping("/fallback/products")
+    @RequestMapping("/fallback/products")
     public ResponseEntity<List<String>> productsFallback() {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body(Collections.singletonList("Product service is unavailable, please try after sometime"));
     }
-    @GetMapping("/fallback/users")
+    @RequestMapping("/fallback/users")
     public ResponseEntity<List<String>> usersFallback() {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body(Collections.singletonList("users service is unavailable, please try after sometime"));
     }
-    @GetMapping("/fallback/orders")
+    @RequestMapping("/fallback/orders")
     public ResponseEntity<List<String>> ordersFallback() {
         return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
                 .body(Collections.singletonList("orders service is unavailable, please try after sometime"));
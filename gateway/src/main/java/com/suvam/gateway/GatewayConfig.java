@@ -1,34 +1,87 @@
 package com.suvam.gateway;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.DispatcherHandler;
+
+import java.time.Duration;
+import java.util.List;
 
 @Configuration
 public class GatewayConfig {
+    @Value("${gateway.response-cache.routes.product.ttl-seconds:30}")
+    private long productCacheTtlSeconds;
+
+    @Value("${gateway.response-cache.maximum-entry-size:256KB}")
+    private DataSize maximumCacheEntrySize;
+
+    @Value("${gateway.single-flight.maximum-body-size:1MB}")
+    private DataSize maximumSingleFlightBodySize;
+
     @Bean
-    public RouteLocator customRouteLocator(RouteLocatorBuilder builder) {
+    public RouteLocator customRouteLocator(RouteLocatorBuilder builder, ResponseCache responseCache,
+                                           TokenBucketRateLimiter rateLimiter, KeyResolver userOrIpKeyResolver,
+                                           ConcurrencyLimits concurrencyLimits,
+                                           ObjectProvider<DispatcherHandler> dispatcherHandler,
+                                           MeterRegistry meterRegistry) {
+        //the NDJSON stream is unbounded, it is never cached nor counted against the concurrency limit
+        List<String> productStream = List.of("/api/products/stream");
+        ResponseCacheFilter productCache = new ResponseCacheFilter(responseCache,
+                Duration.ofSeconds(productCacheTtlSeconds), (int) maximumCacheEntrySize.toBytes(),
+                productStream);
+        //identical product reads in flight together share one upstream call
+        SingleFlightFilter productSingleFlight = new SingleFlightFilter("product",
+                (int) maximumSingleFlightBodySize.toBytes(), productStream, meterRegistry);
+
+        //one breaker, bulkhead and time limiter per downstream service, see resilience4j.* in application.yaml
+        //the concurrency limit sheds load ahead of the breaker, a cache hit never takes a slot
         return builder.routes()
                 .route("product", r -> r
                         .path("/api/products/**")
-                        .filters(f->f.circuitBreaker(config -> config
-                                        .setName("ecomBreaker")
+                        .filters(f->f
+                                .filter(productCache)
+                                .filter(productSingleFlight)
+                                .requestRateLimiter(config -> config
+                                        .setRateLimiter(rateLimiter)
+                                        .setKeyResolver(userOrIpKeyResolver))
+                                .filter(new ConcurrencyLimitFilter(concurrencyLimits.forRoute("product"),
+                                        "/fallback/products", dispatcherHandler::getObject, productStream))
+                                .circuitBreaker(config -> config
+                                        .setName("productBreaker")
                                         .setFallbackUri("forward:/fallback/products")))
                         .uri("lb://PRODUCT"))
 
                 .route("user", r -> r
                         .path("/api/users/**")
-                        .filters(f->f.circuitBreaker(config -> config
-                                .setName("ecomBreaker")
-                                .setFallbackUri("forward:/fallback/users")))
+                        .filters(f->f
+                                .requestRateLimiter(config -> config
+                                        .setRateLimiter(rateLimiter)
+                                        .setKeyResolver(userOrIpKeyResolver))
+                                .filter(new ConcurrencyLimitFilter(concurrencyLimits.forRoute("user"),
+                                        "/fallback/users", dispatcherHandler::getObject, List.of()))
+                                .circuitBreaker(config -> config
+                                        .setName("userBreaker")
+                                        .setFallbackUri("forward:/fallback/users")))
                         .uri("lb://USER"))
 
                 .route("order", r -> r
                         .path("/api/orders/**", "/api/cart/**")
-                        .filters(f->f.circuitBreaker(config -> config
-                                .setName("ecomBreaker")
-                                .setFallbackUri("forward:/fallback/orders")))
+                        .filters(f->f
+                                .requestRateLimiter(config -> config
+                                        .setRateLimiter(rateLimiter)
+                                        .setKeyResolver(userOrIpKeyResolver))
+                                .filter(new ConcurrencyLimitFilter(concurrencyLimits.forRoute("order"),
+                                        "/fallback/orders", dispatcherHandler::getObject, List.of()))
+                                .circuitBreaker(config -> config
+                                        .setName("orderBreaker")
+                                        .setFallbackUri("forward:/fallback/orders")))
                         .uri("lb://ORDER"))
 
                 .route("eureka", r -> r
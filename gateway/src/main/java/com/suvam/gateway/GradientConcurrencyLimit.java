@@ -0,0 +1,93 @@
+package com.suvam.gateway;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/*
+ * Concurrency limit that follows the downstream service's round trip time, in the spirit of
+ * Netflix's gradient limiter. A slow moving average of the RTT is the baseline and a fast one is
+ * the current RTT; while the current RTT stays within the tolerance of the baseline the limit keeps
+ * growing by sqrt(limit), once requests start queueing in the service the RTT rises and the limit
+ * shrinks by the ratio between the two. Requests beyond the limit are turned away at once instead of
+ * piling up in front of a service that is already saturated.
+ */
+public class GradientConcurrencyLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final int longWindow;
+    private final int shortWindow;
+
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    private double longRttNanos;
+    private double shortRttNanos;
+
+    public GradientConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double rttTolerance,
+                                    double smoothing, int longWindow, int shortWindow) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.longWindow = longWindow;
+        this.shortWindow = shortWindow;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) return false;
+            if (inflight.compareAndSet(current, current + 1)) return true;
+        }
+    }
+
+    //a request that got an answer, its RTT feeds the limit
+    public void release(long rttNanos) {
+        int inflightBefore = inflight.getAndDecrement();
+        onSample(rttNanos, inflightBefore);
+    }
+
+    //a request that was cancelled, it says nothing about how fast the service answers
+    public void releaseWithoutSample() {
+        inflight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    public synchronized double getLongRttNanos() {
+        return longRttNanos;
+    }
+
+    public synchronized double getShortRttNanos() {
+        return shortRttNanos;
+    }
+
+    private synchronized void onSample(long rttNanos, int inflightBefore) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+            shortRttNanos = rttNanos;
+            return;
+        }
+        shortRttNanos += (rttNanos - shortRttNanos) / shortWindow;
+        longRttNanos += (rttNanos - longRttNanos) / longWindow;
+        //once a long spike is over the baseline is far above the current RTT, pull it back down
+        if (longRttNanos > 2 * shortRttNanos) {
+            longRttNanos *= 0.95;
+        }
+
+        //a route that is not using half its limit tells nothing about whether it could take more
+        if (inflightBefore < limit / 2) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttNanos / shortRttNanos));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,47 @@
+package com.suvam.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/*
+ * Token buckets in this instance's memory, written as GCRA: a bucket is a single "theoretical
+ * arrival time" that each granted request pushes one emission interval further. A request is
+ * granted while that time is less than a full burst ahead of now. One CAS per request, no locks,
+ * and an idle bucket costs nothing to refill. Buckets idle for longer than idleTtl are dropped.
+ */
+public class LocalTokenBucketStore implements TokenBucketStore {
+    private final Cache<String, AtomicLong> buckets;
+    private final LongSupplier nanoClock;
+
+    public LocalTokenBucketStore(long maximumBuckets, Duration idleTtl, LongSupplier nanoClock) {
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumBuckets)
+                .expireAfterAccess(idleTtl)
+                .build();
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public Decision tryAcquire(String bucketKey, RateLimitQuota quota) {
+        long interval = quota.emissionIntervalNanos();
+        long burst = interval * quota.burstCapacity();
+        AtomicLong arrival = buckets.get(bucketKey, key -> new AtomicLong(nanoClock.getAsLong()));
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = arrival.get();
+            long next = Math.max(current, now) + interval;
+            long allowAt = next - burst;
+            if (now < allowAt) {
+                return new Decision(false, 0, allowAt - now);
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return new Decision(true, (now - allowAt) / interval, 0);
+            }
+        }
+    }
+}
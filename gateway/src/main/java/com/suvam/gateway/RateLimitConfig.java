@@ -0,0 +1,54 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Map;
+
+@Configuration
+public class RateLimitConfig {
+    @Value("${gateway.rate-limit.routes.product.burst-capacity:200}")
+    private long productBurstCapacity;
+    @Value("${gateway.rate-limit.routes.product.replenish-rate:100}")
+    private double productReplenishRate;
+
+    @Value("${gateway.rate-limit.routes.user.burst-capacity:40}")
+    private long userBurstCapacity;
+    @Value("${gateway.rate-limit.routes.user.replenish-rate:20}")
+    private double userReplenishRate;
+
+    @Value("${gateway.rate-limit.routes.order.burst-capacity:20}")
+    private long orderBurstCapacity;
+    @Value("${gateway.rate-limit.routes.order.replenish-rate:10}")
+    private double orderReplenishRate;
+
+    @Value("${gateway.rate-limit.maximum-keys:100000}")
+    private long maximumKeys;
+
+    @Value("${gateway.rate-limit.idle-ttl-minutes:10}")
+    private long idleTtlMinutes;
+
+    //swap this bean for a shared implementation to enforce quotas across gateway instances
+    @Bean
+    public TokenBucketStore tokenBucketStore() {
+        return new LocalTokenBucketStore(maximumKeys, Duration.ofMinutes(idleTtlMinutes), System::nanoTime);
+    }
+
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter(TokenBucketStore tokenBucketStore, MeterRegistry meterRegistry) {
+        return new TokenBucketRateLimiter(tokenBucketStore, Map.of(
+                "product", new RateLimitQuota(productBurstCapacity, productReplenishRate),
+                "user", new RateLimitQuota(userBurstCapacity, userReplenishRate),
+                "order", new RateLimitQuota(orderBurstCapacity, orderReplenishRate)
+        ), meterRegistry, maximumKeys, Duration.ofMinutes(idleTtlMinutes));
+    }
+
+    @Bean
+    public KeyResolver userOrIpKeyResolver() {
+        return new UserOrIpKeyResolver();
+    }
+}
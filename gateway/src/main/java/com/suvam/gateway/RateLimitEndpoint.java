@@ -0,0 +1,27 @@
+package com.suvam.gateway;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//GET /actuator/ratelimits, the quotas and the keys being throttled hardest
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+    private static final int TOP_KEYS = 50;
+
+    @Autowired
+    private TokenBucketRateLimiter tokenBucketRateLimiter;
+
+    @ReadOperation
+    public Map<String, Object> rateLimits() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("quotas", tokenBucketRateLimiter.getConfig());
+        body.put("topRejectedKeys", tokenBucketRateLimiter.topRejected(TOP_KEYS));
+        return body;
+    }
+}
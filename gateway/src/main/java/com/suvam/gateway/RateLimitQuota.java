@@ -0,0 +1,14 @@
+package com.suvam.gateway;
+
+//a burst of burstCapacity requests, then replenishRate requests per second
+public record RateLimitQuota(long burstCapacity, double replenishRate) {
+    public RateLimitQuota {
+        if (burstCapacity < 1 || replenishRate <= 0) {
+            throw new IllegalArgumentException("Quota needs a burst of at least 1 and a positive rate");
+        }
+    }
+
+    public long emissionIntervalNanos() {
+        return Math.max(1, (long) (1_000_000_000L / replenishRate));
+    }
+}
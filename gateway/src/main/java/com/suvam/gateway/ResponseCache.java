@@ -0,0 +1,72 @@
+package com.suvam.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+/*
+ * Cached GET responses, bounded by the total size of their bodies. Each entry carries its own TTL.
+ * Entries for a single product (/api/products/{id}) are tagged with its id, everything else
+ * (listings, search, suggestions) may contain any product and goes on every product purge.
+ */
+public class ResponseCache {
+    public record CachedResponse(int status, HttpHeaders headers, byte[] body, String etag,
+                                 String productId, long storedAtNanos, long ttlNanos) {
+    }
+
+    private final Cache<String, CachedResponse> responses;
+
+    public ResponseCache(long maximumBytes) {
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.ttlNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        responses.put(key, response);
+    }
+
+    //O(entries): a full scan of the cache on every product write. Every untagged listing has to go
+    //anyway and maximum-size keeps the map to a few thousand entries, callers run it off the event loop
+    public void evictProduct(String productId) {
+        responses.asMap().values().removeIf(response ->
+                response.productId() == null || response.productId().equals(productId));
+    }
+
+    public void evictAll() {
+        responses.invalidateAll();
+    }
+
+    public Cache<String, CachedResponse> getCache() {
+        return responses;
+    }
+
+    public static Duration age(CachedResponse response, long nowNanos) {
+        return Duration.ofNanos(nowNanos - response.storedAtNanos());
+    }
+}
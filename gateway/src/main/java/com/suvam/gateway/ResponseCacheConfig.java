@@ -0,0 +1,21 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class ResponseCacheConfig {
+    @Value("${gateway.response-cache.maximum-size:64MB}")
+    private DataSize maximumSize;
+
+    @Bean
+    public ResponseCache responseCache(MeterRegistry meterRegistry) {
+        ResponseCache responseCache = new ResponseCache(maximumSize.toBytes());
+        CaffeineCacheMetrics.monitor(meterRegistry, responseCache.getCache(), "gatewayResponses");
+        return responseCache;
+    }
+}
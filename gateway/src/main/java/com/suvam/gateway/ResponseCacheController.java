@@ -0,0 +1,56 @@
+package com.suvam.gateway;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/*
+ * Called by the product service after it writes, see ProductCacheInvalidationListener there.
+ * This is served on the public gateway port, so every purge has to carry the shared token
+ * (gateway.response-cache.purge-token), without it the request is refused with 403.
+ */
+@RestController
+@RequestMapping("/internal/cache")
+public class ResponseCacheController {
+    public static final String TOKEN_HEADER = "X-Cache-Purge-Token";
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Value("${gateway.response-cache.purge-token:}")
+    private String purgeToken;
+
+    //a product purge walks the whole cache, so it runs off the event loop
+    @DeleteMapping("/products/{id}")
+    public Mono<ResponseEntity<Void>> evictProduct(@PathVariable String id,
+                                                   @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) return Mono.just(ResponseEntity.status(HttpStatus.FORBIDDEN).<Void>build());
+        return Mono.fromRunnable(() -> responseCache.evictProduct(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .thenReturn(ResponseEntity.noContent().<Void>build());
+    }
+
+    @DeleteMapping("/products")
+    public ResponseEntity<Void> evictAll(@RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        responseCache.evictAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    //an unset token refuses everyone rather than letting everyone in
+    private boolean authorized(String token) {
+        if (purgeToken == null || purgeToken.isEmpty() || token == null) return false;
+        return MessageDigest.isEqual(purgeToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
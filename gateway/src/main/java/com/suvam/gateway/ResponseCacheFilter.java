@@ -0,0 +1,153 @@
+package com.suvam.gateway;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/*
+ * Answers repeated GETs from ResponseCache. Runs ahead of the circuit breaker and before
+ * NettyWriteResponseFilter writes the upstream body, so a hit never reaches the downstream service
+ * and a miss is copied into the cache on its way to the client. Upstream Cache-Control wins over
+ * the route TTL, no-store and private responses are not kept.
+ */
+public class ResponseCacheFilter implements GatewayFilter, Ordered {
+    //ahead of SingleFlightFilter, so a hit is answered without joining a flight
+    public static final int ORDER = SingleFlightFilter.ORDER - 1;
+    public static final String CACHE_HEADER = "X-Cache";
+    private static final Pattern PRODUCT_PATH = Pattern.compile("^/api/products/(\\d+)$");
+    //responses that must not be stored or replayed for someone else
+    private static final List<String> UNCACHEABLE_HEADERS = List.of(HttpHeaders.SET_COOKIE, HttpHeaders.TRANSFER_ENCODING);
+
+    private final ResponseCache responseCache;
+    private final Duration ttl;
+    private final int maxEntryBytes;
+    private final List<String> bypassPaths;
+
+    public ResponseCacheFilter(ResponseCache responseCache, Duration ttl, int maxEntryBytes, List<String> bypassPaths) {
+        this.responseCache = responseCache;
+        this.ttl = ttl;
+        this.maxEntryBytes = maxEntryBytes;
+        this.bypassPaths = bypassPaths;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+        List<String> requestCacheControl = directives(request.getHeaders().getCacheControl());
+        if (request.getMethod() != HttpMethod.GET
+                || bypassPaths.contains(path)
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                || requestCacheControl.contains("no-store")) {
+            return chain.filter(exchange);
+        }
+
+        String key = request.getURI().getRawQuery() == null ? path : path + "?" + request.getURI().getRawQuery();
+        if (!requestCacheControl.contains("no-cache")) {
+            ResponseCache.CachedResponse cached = responseCache.get(key);
+            if (cached != null) {
+                return writeCached(exchange, cached);
+            }
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().set(CACHE_HEADER, "MISS");
+        BodyCaptureResponseDecorator capture = new BodyCaptureResponseDecorator(response, maxEntryBytes,
+                body -> store(key, path, response, body));
+        return chain.filter(exchange.mutate().response(capture).build());
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private void store(String key, String path, ServerHttpResponse response, byte[] body) {
+        HttpStatusCode status = response.getStatusCode();
+        HttpHeaders headers = response.getHeaders();
+        if (status == null || status.value() != HttpStatus.OK.value()
+                || UNCACHEABLE_HEADERS.stream().anyMatch(headers::containsKey)) {
+            return;
+        }
+        List<String> cacheControl = directives(headers.getCacheControl());
+        if (cacheControl.contains("no-store") || cacheControl.contains("private") || cacheControl.contains("no-cache")) {
+            return;
+        }
+        long ttlNanos = upstreamTtl(cacheControl).orElse(ttl).toNanos();
+        if (ttlNanos <= 0) return;
+
+        String etag = headers.getETag() != null ? headers.getETag() : "\"" + DigestUtils.md5DigestAsHex(body) + "\"";
+        HttpHeaders stored = new HttpHeaders();
+        stored.putAll(headers);
+        stored.remove(CACHE_HEADER);
+        stored.setETag(etag);
+        stored.setContentLength(body.length);
+
+        Matcher product = PRODUCT_PATH.matcher(path);
+        responseCache.put(key, new ResponseCache.CachedResponse(status.value(), HttpHeaders.readOnlyHttpHeaders(stored),
+                body, etag, product.matches() ? product.group(1) : null, System.nanoTime(), ttlNanos));
+    }
+
+    private Mono<Void> writeCached(ServerWebExchange exchange, ResponseCache.CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(CACHE_HEADER, "HIT");
+        response.getHeaders().set(HttpHeaders.AGE,
+                String.valueOf(ResponseCache.age(cached, System.nanoTime()).toSeconds()));
+
+        if (matches(exchange.getRequest().getHeaders().getIfNoneMatch(), cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatusCode.valueOf(cached.status()));
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String opaque = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return ifNoneMatch.stream().anyMatch(candidate -> candidate.equals("*")
+                || candidate.equals(opaque)
+                || candidate.equals("W/" + opaque));
+    }
+
+    //s-maxage is meant for shared caches like this one and beats max-age
+    private static Optional<Duration> upstreamTtl(List<String> cacheControl) {
+        for (String prefix : List.of("s-maxage=", "max-age=")) {
+            for (String directive : cacheControl) {
+                if (directive.startsWith(prefix)) {
+                    try {
+                        return Optional.of(Duration.ofSeconds(Long.parseLong(directive.substring(prefix.length()))));
+                    } catch (NumberFormatException e) {
+                        return Optional.empty();
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static List<String> directives(String cacheControl) {
+        if (cacheControl == null || cacheControl.isBlank()) return List.of();
+        return Arrays.stream(cacheControl.split(","))
+                .map(directive -> directive.trim().toLowerCase(Locale.ROOT))
+                .toList();
+    }
+}
@@ -0,0 +1,147 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ * Collapses identical GETs that are in flight at the same time into one upstream exchange. The first
+ * request goes upstream, its body is copied on the way to its client, and every identical request
+ * that arrived meanwhile is answered from that copy. Nothing is kept once the exchange is over,
+ * that is ResponseCacheFilter's job. Requests carrying credentials or a user id are never shared,
+ * and when the leader's response cannot be shared (too large, streamed, failed, sets a cookie) the
+ * waiters go upstream on their own.
+ */
+public class SingleFlightFilter implements GatewayFilter, Ordered {
+    /*
+     * After the response cache, so only misses get here, and strictly ahead of NettyWriteResponseFilter
+     * (-1): on a tie the global filter runs first and writes through the exchange without our decorator.
+     */
+    public static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    public static final String SINGLE_FLIGHT_HEADER = "X-Single-Flight";
+    //headers that change what the upstream answers, a 304 must only go to requests that asked for it
+    private static final List<String> KEY_HEADERS = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING,
+            HttpHeaders.ACCEPT_LANGUAGE, HttpHeaders.IF_NONE_MATCH, HttpHeaders.IF_MODIFIED_SINCE);
+    //requests that may get an answer meant only for their sender
+    private static final List<String> PERSONAL_HEADERS = List.of(HttpHeaders.AUTHORIZATION, HttpHeaders.COOKIE,
+            UserOrIpKeyResolver.USER_HEADER, HttpHeaders.RANGE);
+
+    private record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+    }
+
+    private final int maxBodyBytes;
+    private final List<String> bypassPaths;
+    private final Map<String, CompletableFuture<SharedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter shared;
+    private final Counter unshared;
+
+    public SingleFlightFilter(String routeId, int maxBodyBytes, List<String> bypassPaths, MeterRegistry meterRegistry) {
+        this.maxBodyBytes = maxBodyBytes;
+        this.bypassPaths = bypassPaths;
+        this.leaders = counter(meterRegistry, routeId, "leader");
+        this.shared = counter(meterRegistry, routeId, "shared");
+        this.unshared = counter(meterRegistry, routeId, "unshared");
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET
+                || bypassPaths.contains(request.getPath().value())
+                || PERSONAL_HEADERS.stream().anyMatch(request.getHeaders()::containsKey)) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        CompletableFuture<SharedResponse> flight = new CompletableFuture<>();
+        CompletableFuture<SharedResponse> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            //write is an empty Mono, so "nothing to share" has to be decided before it, not by switchIfEmpty
+            return Mono.fromFuture(existing, true)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(response -> {
+                        if (response.isPresent()) {
+                            shared.increment();
+                            return write(exchange, response.get());
+                        }
+                        unshared.increment();
+                        return chain.filter(exchange);
+                    });
+        }
+
+        leaders.increment();
+        ServerHttpResponse response = exchange.getResponse();
+        BodyCaptureResponseDecorator capture = new BodyCaptureResponseDecorator(response, maxBodyBytes,
+                body -> land(key, flight, share(response, body)));
+        //whatever could not be shared is released as "no answer", waiters then go upstream themselves
+        return chain.filter(exchange.mutate().response(capture).build())
+                .doFinally(signal -> land(key, flight, null));
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    //the key leaves the map first, so a request arriving afterwards starts a fresh flight
+    private void land(String key, CompletableFuture<SharedResponse> flight, SharedResponse response) {
+        inFlight.remove(key, flight);
+        flight.complete(response);
+    }
+
+    private static SharedResponse share(ServerHttpResponse response, byte[] body) {
+        HttpStatusCode status = response.getStatusCode();
+        if (status == null || response.getHeaders().containsKey(HttpHeaders.SET_COOKIE)) {
+            return null;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.setContentLength(body.length);
+        return new SharedResponse(status, HttpHeaders.readOnlyHttpHeaders(headers), body);
+    }
+
+    private static Mono<Void> write(ServerWebExchange exchange, SharedResponse shared) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().set(SINGLE_FLIGHT_HEADER, "shared");
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static String key(ServerHttpRequest request) {
+        StringBuilder key = new StringBuilder(request.getPath().value());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : KEY_HEADERS) {
+            key.append('\n').append(header).append(':').append(request.getHeaders().getOrDefault(header, List.of()));
+        }
+        return key.toString();
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String routeId, String outcome) {
+        return Counter.builder("gateway.singleflight.requests")
+                .tag("route", routeId)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,130 @@
+package com.suvam.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ * RateLimiter for the RequestRateLimiter filter. Quotas are per route, buckets per route and key,
+ * and the buckets themselves live in a TokenBucketStore. A key may name several buckets separated by
+ * KEY_SEPARATOR, a request then needs a token from each of them. Denials carry Retry-After, which the
+ * filter copies onto the 429 response.
+ */
+public class TokenBucketRateLimiter implements RateLimiter<RateLimitQuota> {
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String RETRY_AFTER_HEADER = "Retry-After";
+    public static final String KEY_SEPARATOR = ",";
+    //what newConfig hands out, routes without a quota in gateway.rate-limit are not limited at all
+    public static final RateLimitQuota DEFAULT_QUOTA = new RateLimitQuota(20, 10);
+
+    public record KeyStats(String route, String key, long allowed, long rejected) {
+    }
+
+    private record Counts(LongAdder allowed, LongAdder rejected) {
+    }
+
+    private final TokenBucketStore store;
+    private final Map<String, RateLimitQuota> quotas;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> outcomeCounters = new ConcurrentHashMap<>();
+    private final Cache<String, Counts> keyCounts;
+
+    public TokenBucketRateLimiter(TokenBucketStore store, Map<String, RateLimitQuota> quotas,
+                                  MeterRegistry meterRegistry, long maximumTrackedKeys, Duration keyStatsTtl) {
+        this.store = store;
+        this.quotas = Map.copyOf(quotas);
+        this.meterRegistry = meterRegistry;
+        this.keyCounts = Caffeine.newBuilder()
+                .maximumSize(maximumTrackedKeys)
+                .expireAfterAccess(keyStatsTtl)
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        RateLimitQuota quota = quotas.get(routeId);
+        if (quota == null) {
+            return Mono.just(new Response(true, Map.of()));
+        }
+
+        //checked in order and stopped at the first empty bucket, so later buckets are not charged for it
+        boolean allowed = true;
+        long remaining = Long.MAX_VALUE;
+        long retryAfterNanos = 0;
+        for (String key : id.split(KEY_SEPARATOR)) {
+            TokenBucketStore.Decision decision = store.tryAcquire(routeId + "|" + key, quota);
+            record(routeId, key, decision.allowed());
+            remaining = Math.min(remaining, decision.remaining());
+            if (!decision.allowed()) {
+                allowed = false;
+                retryAfterNanos = decision.retryAfterNanos();
+                break;
+            }
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(remaining));
+        if (!allowed) {
+            //whole seconds, rounded up so a client that obeys it is not rejected again
+            long retryAfterSeconds = Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+            headers.put(RETRY_AFTER_HEADER, String.valueOf(retryAfterSeconds));
+        }
+        return Mono.just(new Response(allowed, headers));
+    }
+
+    //keys with the most rejections first, what the ratelimits actuator endpoint shows
+    public List<KeyStats> topRejected(int limit) {
+        return keyCounts.asMap().entrySet().stream()
+                .map(entry -> {
+                    int separator = entry.getKey().indexOf('|');
+                    return new KeyStats(entry.getKey().substring(0, separator), entry.getKey().substring(separator + 1),
+                            entry.getValue().allowed().sum(), entry.getValue().rejected().sum());
+                })
+                .filter(stats -> stats.rejected() > 0)
+                .sorted(Comparator.comparingLong(KeyStats::rejected).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Map<String, RateLimitQuota> getConfig() {
+        return quotas;
+    }
+
+    @Override
+    public Class<RateLimitQuota> getConfigClass() {
+        return RateLimitQuota.class;
+    }
+
+    //quotas come from RateLimitConfig, not from route definition properties
+    @Override
+    public RateLimitQuota newConfig() {
+        return DEFAULT_QUOTA;
+    }
+
+    private void record(String routeId, String id, boolean allowed) {
+        String outcome = allowed ? "allowed" : "rejected";
+        //per route and key type only, a tag per user would grow the registry without bound
+        String keyType = id.substring(0, Math.max(0, id.indexOf(':')));
+        outcomeCounters.computeIfAbsent(routeId + "|" + outcome + "|" + keyType, name -> Counter.builder("gateway.ratelimit.requests")
+                        .tag("route", routeId)
+                        .tag("outcome", outcome)
+                        .tag("key.type", keyType.isEmpty() ? "other" : keyType)
+                        .register(meterRegistry))
+                .increment();
+
+        Counts counts = keyCounts.get(routeId + "|" + id, key -> new Counts(new LongAdder(), new LongAdder()));
+        (allowed ? counts.allowed() : counts.rejected()).increment();
+    }
+}
@@ -0,0 +1,9 @@
+package com.suvam.gateway;
+
+//where bucket state lives, a shared store (Redis and the like) makes the quota span all gateway instances
+public interface TokenBucketStore {
+    record Decision(boolean allowed, long remaining, long retryAfterNanos) {
+    }
+
+    Decision tryAcquire(String bucketKey, RateLimitQuota quota);
+}
@@ -0,0 +1,33 @@
+package com.suvam.gateway;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/*
+ * Every caller is limited per client address, signed-in callers per user as well. X-User-ID is sent
+ * by the client and nothing in front of this gateway authenticates it yet, so on its own it would let
+ * anyone pick a fresh bucket per request; the address bucket still holds them. The user bucket only
+ * becomes a real per-user quota once the header is set by an authenticating layer.
+ */
+public class UserOrIpKeyResolver implements KeyResolver {
+    public static final String USER_HEADER = "X-User-ID";
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        //the socket address, X-Forwarded-For is set by the client too
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        String ip = remoteAddress == null || remoteAddress.getAddress() == null
+                ? "unknown" : remoteAddress.getAddress().getHostAddress();
+
+        String userId = exchange.getRequest().getHeaders().getFirst(USER_HEADER);
+        if (userId != null && !userId.isBlank()) {
+            //the address first, a spoofed user id then never gets past the address bucket
+            return Mono.just("ip:" + ip + TokenBucketRateLimiter.KEY_SEPARATOR
+                    + "user:" + userId.replace(TokenBucketRateLimiter.KEY_SEPARATOR, ""));
+        }
+        return Mono.just("ip:" + ip);
+    }
+}
@@ -0,0 +1,106 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class AccessLogFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<AccessLogEntry> logged = new ArrayList<>();
+    private final AccessLogWriter writer = new AccessLogWriter(64, logged::add, meterRegistry);
+
+    @DisplayName("Sampling Off - Only Errors Logged, Everything Timed")
+    @Test
+    void test_When_Not_Sampled_Then_Only_Errors_Logged() {
+
+        AccessLogFilter filter = new AccessLogFilter(writer, meterRegistry, 0, Duration.ofMinutes(1));
+
+        filter.filter(exchange("/api/products/1"), respond(HttpStatus.OK)).block();
+        filter.filter(exchange("/api/products/1"), respond(HttpStatus.SERVICE_UNAVAILABLE)).block();
+        writer.drain();
+
+        assertEquals(1, logged.size());
+        assertEquals(503, logged.get(0).status());
+        assertEquals("product", logged.get(0).routeId());
+        assertEquals("error", logged.get(0).reason());
+
+        Timer ok = meterRegistry.get("gateway.route.requests").tag("route", "product").tag("status", "2xx").timer();
+        assertEquals(1, ok.count());
+        assertEquals(1, meterRegistry.get("gateway.route.requests").tag("status", "5xx").timer().count());
+    }
+
+    @DisplayName("Slow Request - Always Logged")
+    @Test
+    void test_When_Slow_Then_Logged() {
+
+        AccessLogFilter filter = new AccessLogFilter(writer, meterRegistry, 0, Duration.ZERO);
+
+        filter.filter(exchange("/api/products/1"), respond(HttpStatus.OK)).block();
+        writer.drain();
+
+        assertEquals(1, logged.size());
+        assertEquals("slow", logged.get(0).reason());
+        assertTrue(logged.get(0).format().contains("route=product"));
+    }
+
+    @DisplayName("Full Sampling - Every Request Logged")
+    @Test
+    void test_When_Sample_Rate_One_Then_All_Logged() {
+
+        AccessLogFilter filter = new AccessLogFilter(writer, meterRegistry, 1, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 10; i++) {
+            filter.filter(exchange("/api/products/" + i), respond(HttpStatus.OK)).block();
+        }
+        writer.drain();
+
+        assertEquals(10, logged.size());
+        assertTrue(logged.stream().allMatch(entry -> entry.reason().equals("sampled")));
+    }
+
+    @DisplayName("Writer Behind - Entries Dropped And Counted")
+    @Test
+    void test_When_Buffer_Full_Then_Dropped() {
+
+        AccessLogFilter filter = new AccessLogFilter(writer, meterRegistry, 1, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 100; i++) {
+            filter.filter(exchange("/api/products/1"), respond(HttpStatus.OK)).block();
+        }
+
+        assertEquals(64, writer.drain());
+        assertEquals(36.0, meterRegistry.get("gateway.accesslog.dropped").counter().count());
+    }
+
+    private static GatewayFilterChain respond(HttpStatus status) {
+        return exchange -> {
+            exchange.getResponse().setStatusCode(status);
+            return exchange.getResponse().setComplete();
+        };
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("product")
+                .uri("lb://PRODUCT")
+                .predicate(serverWebExchange -> true)
+                .build());
+        return exchange;
+    }
+}
@@ -0,0 +1,65 @@
+package com.suvam.gateway;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogRingBufferTest {
+
+    @DisplayName("Full Buffer - Offer Refused Until Consumer Frees A Slot")
+    @Test
+    void test_When_Full_Then_Offer_Fails() {
+
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) assertTrue(buffer.offer(i));
+        assertFalse(buffer.offer(4));
+
+        assertEquals(0, buffer.poll());
+        assertTrue(buffer.offer(4));
+        for (int i = 1; i <= 4; i++) assertEquals(i, buffer.poll());
+        assertNull(buffer.poll());
+    }
+
+    @DisplayName("Concurrent Producers - Nothing Lost Or Duplicated")
+    @Test
+    void test_When_Many_Producers_Then_Every_Accepted_Item_Polled_Once() throws InterruptedException {
+
+        AccessLogRingBuffer<Integer> buffer = new AccessLogRingBuffer<>(1024);
+        int producers = 8;
+        int perProducer = 20_000;
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(producers);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            int base = p * perProducer;
+            executor.execute(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    if (buffer.offer(base + i)) accepted.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+
+        Set<Integer> polled = new HashSet<>();
+        while (done.getCount() > 0) {
+            Integer item = buffer.poll();
+            if (item != null) assertTrue(polled.add(item), "duplicate " + item);
+        }
+        for (Integer item = buffer.poll(); item != null; item = buffer.poll()) {
+            assertTrue(polled.add(item), "duplicate " + item);
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+
+        assertEquals(accepted.get(), polled.size());
+    }
+}
@@ -0,0 +1,89 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebHandler;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimits concurrencyLimits = new ConcurrencyLimits(
+            () -> new GradientConcurrencyLimit(2, 1, 10, 1.5, 0.2, 600, 10), meterRegistry);
+    private final List<String> forwardedPaths = new ArrayList<>();
+    private final WebHandler fallbackHandler = exchange -> {
+        forwardedPaths.add(exchange.getRequest().getPath().value());
+        exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        return Mono.empty();
+    };
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(concurrencyLimits.forRoute("product"),
+            "/fallback/products", () -> fallbackHandler, List.of("/api/products/stream"));
+
+    @DisplayName("Over The Limit - Shed To Fallback With 503")
+    @Test
+    void test_When_Limit_Reached_Then_Forwarded_To_Fallback() {
+
+        Sinks.Empty<Void> upstream = Sinks.empty();
+        GatewayFilterChain slowChain = exchange -> upstream.asMono();
+        filter.filter(get("/api/products/1"), slowChain).subscribe();
+        filter.filter(get("/api/products/2"), slowChain).subscribe();
+
+        MockServerWebExchange shed = get("/api/products/3");
+        filter.filter(shed, slowChain).block();
+
+        assertEquals(List.of("/fallback/products"), forwardedPaths);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals("1", shed.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.requests")
+                .tag("route", "product").tag("outcome", "shed").counter().count());
+        assertEquals(2.0, meterRegistry.get("gateway.concurrency.inflight").tag("route", "product").gauge().value());
+
+        //the slots come back once the upstream answers
+        upstream.tryEmitEmpty();
+        assertEquals(0, concurrencyLimits.snapshot().get("product").inflight());
+    }
+
+    @DisplayName("Under The Limit - Passed Through And Released")
+    @Test
+    void test_When_Under_Limit_Then_Chain_Called() {
+
+        for (int i = 0; i < 5; i++) {
+            filter.filter(get("/api/products/1"), exchange -> Mono.empty()).block();
+        }
+
+        assertTrue(forwardedPaths.isEmpty());
+        ConcurrencyLimits.RouteStats stats = concurrencyLimits.snapshot().get("product");
+        assertEquals(5, stats.accepted());
+        assertEquals(0, stats.shed());
+        assertEquals(0, stats.inflight());
+    }
+
+    @DisplayName("Stream Path - Not Counted")
+    @Test
+    void test_When_Bypass_Path_Then_No_Slot_Taken() {
+
+        GatewayFilterChain neverEnding = exchange -> Mono.never();
+        for (int i = 0; i < 5; i++) {
+            filter.filter(get("/api/products/stream"), neverEnding).subscribe();
+        }
+
+        assertTrue(forwardedPaths.isEmpty());
+        assertEquals(0, concurrencyLimits.snapshot().get("product").inflight());
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
@@ -0,0 +1,73 @@
+package com.suvam.gateway;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimitTest {
+
+    private final GradientConcurrencyLimit limit = new GradientConcurrencyLimit(20, 5, 500, 1.5, 0.2, 600, 10);
+
+    @DisplayName("Limit Reached - Further Requests Refused")
+    @Test
+    void test_When_Limit_Reached_Then_Acquire_Fails() {
+
+        for (int i = 0; i < 20; i++) assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.releaseWithoutSample();
+
+        assertTrue(limit.tryAcquire());
+        assertEquals(20, limit.getInflight());
+    }
+
+    @DisplayName("Steady RTT Under Load - Limit Grows")
+    @Test
+    void test_When_Rtt_Steady_At_Full_Use_Then_Limit_Grows() {
+
+        for (int round = 0; round < 20; round++) fillAndRelease(ms(10));
+
+        assertTrue(limit.getLimit() > 40, "limit " + limit.getLimit());
+        assertEquals(0, limit.getInflight());
+    }
+
+    @DisplayName("Rising RTT - Limit Shrinks")
+    @Test
+    void test_When_Rtt_Rises_Then_Limit_Shrinks() {
+
+        for (int round = 0; round < 10; round++) fillAndRelease(ms(10));
+        int before = limit.getLimit();
+
+        //requests are queueing inside the service
+        fillAndRelease(ms(50));
+
+        assertTrue(limit.getLimit() < before / 2, before + " -> " + limit.getLimit());
+        assertTrue(limit.getLimit() >= 5);
+    }
+
+    @DisplayName("Little Traffic - Limit Does Not Grow")
+    @Test
+    void test_When_App_Limited_Then_Limit_Unchanged() {
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(ms(10));
+        }
+
+        assertEquals(20, limit.getLimit());
+    }
+
+    //takes every slot the limit allows then answers them all
+    private void fillAndRelease(long rttNanos) {
+        int acquired = 0;
+        while (limit.tryAcquire()) acquired++;
+        for (int i = 0; i < acquired; i++) limit.release(rttNanos);
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
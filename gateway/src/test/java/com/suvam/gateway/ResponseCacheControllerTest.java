@@ -0,0 +1,55 @@
+package com.suvam.gateway;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheControllerTest {
+
+    private final ResponseCache responseCache = new ResponseCache(1024 * 1024);
+    private final ResponseCacheController controller = new ResponseCacheController();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(controller, "responseCache", responseCache);
+        ReflectionTestUtils.setField(controller, "purgeToken", "secret");
+        responseCache.put("/api/products/1", cached("1"));
+    }
+
+    @DisplayName("Purge Without Token - Refused, Cache Kept")
+    @Test
+    void test_When_Purge_Without_Token_Then_Forbidden() {
+
+        assertEquals(HttpStatus.FORBIDDEN, controller.evictProduct("1", null).block().getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.evictAll("wrong").getStatusCode());
+        assertNotNull(responseCache.get("/api/products/1"));
+    }
+
+    @DisplayName("Purge With Token - Product Evicted")
+    @Test
+    void test_When_Purge_With_Token_Then_Evicted() {
+
+        assertEquals(HttpStatus.NO_CONTENT, controller.evictProduct("1", "secret").block().getStatusCode());
+        assertNull(responseCache.get("/api/products/1"));
+    }
+
+    @DisplayName("Purge Token Not Configured - Everyone Refused")
+    @Test
+    void test_When_Token_Not_Configured_Then_Forbidden() {
+
+        ReflectionTestUtils.setField(controller, "purgeToken", "");
+
+        assertEquals(HttpStatus.FORBIDDEN, controller.evictAll("").getStatusCode());
+        assertNotNull(responseCache.get("/api/products/1"));
+    }
+
+    private static ResponseCache.CachedResponse cached(String productId) {
+        return new ResponseCache.CachedResponse(200, new HttpHeaders(), new byte[0], "\"etag\"",
+                productId, System.nanoTime(), 60_000_000_000L);
+    }
+}
@@ -0,0 +1,127 @@
+package com.suvam.gateway;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private final ResponseCache responseCache = new ResponseCache(1024 * 1024);
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(responseCache, Duration.ofMinutes(1), 1024,
+            List.of("/api/products/stream"));
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @DisplayName("Repeated GET - Served From Cache")
+    @Test
+    void test_When_Same_Get_Twice_Then_Second_Is_Hit() {
+
+        MockServerWebExchange first = get("/api/products/1");
+        filter.filter(first, upstream("{\"id\":1}", null)).block();
+
+        MockServerWebExchange second = get("/api/products/1");
+        filter.filter(second, upstream("{\"id\":1}", null)).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+        assertEquals("{\"id\":1}", second.getResponse().getBodyAsString().block());
+        assertNotNull(second.getResponse().getHeaders().getETag());
+    }
+
+    @DisplayName("If-None-Match - 304 For Current ETag")
+    @Test
+    void test_When_Etag_Matches_Then_Not_Modified() {
+
+        filter.filter(get("/api/products/1"), upstream("{\"id\":1}", null)).block();
+        String etag = responseCache.get("/api/products/1").etag();
+
+        MockServerWebExchange conditional = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag));
+        filter.filter(conditional, upstream("{\"id\":1}", null)).block();
+
+        assertEquals(HttpStatus.NOT_MODIFIED, conditional.getResponse().getStatusCode());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @DisplayName("Cache-Control no-store - Not Cached")
+    @Test
+    void test_When_Upstream_Says_No_Store_Then_Not_Cached() {
+
+        filter.filter(get("/api/products/1"), upstream("{\"id\":1}", "no-store")).block();
+        filter.filter(get("/api/products/1"), upstream("{\"id\":1}", "no-store")).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @DisplayName("Cache-Control max-age=0 - Not Cached")
+    @Test
+    void test_When_Upstream_Max_Age_Zero_Then_Not_Cached() {
+
+        filter.filter(get("/api/products/1"), upstream("{\"id\":1}", "max-age=0")).block();
+
+        assertNull(responseCache.get("/api/products/1"));
+    }
+
+    @DisplayName("Oversized Body - Passed Through, Not Cached")
+    @Test
+    void test_When_Body_Exceeds_Entry_Limit_Then_Not_Cached() {
+
+        String large = "x".repeat(2048);
+        MockServerWebExchange exchange = get("/api/products");
+        filter.filter(exchange, upstream(large, null)).block();
+
+        assertEquals(large, exchange.getResponse().getBodyAsString().block());
+        assertNull(responseCache.get("/api/products"));
+    }
+
+    @DisplayName("Product Purge - Detail And Listings Evicted")
+    @Test
+    void test_When_Product_Purged_Then_Its_Entries_And_Listings_Evicted() {
+
+        filter.filter(get("/api/products/1"), upstream("{\"id\":1}", null)).block();
+        filter.filter(get("/api/products/2"), upstream("{\"id\":2}", null)).block();
+        filter.filter(get("/api/products/search?keyword=phone"), upstream("[]", null)).block();
+
+        responseCache.evictProduct("1");
+
+        assertNull(responseCache.get("/api/products/1"));
+        assertNull(responseCache.get("/api/products/search?keyword=phone"));
+        assertNotNull(responseCache.get("/api/products/2"));
+    }
+
+    @DisplayName("Stream Path - Bypassed")
+    @Test
+    void test_When_Bypass_Path_Then_Not_Cached() {
+
+        filter.filter(get("/api/products/stream"), upstream("{}\n", null)).block();
+        filter.filter(get("/api/products/stream"), upstream("{}\n", null)).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    private MockServerWebExchange get(String uri) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(uri));
+    }
+
+    private GatewayFilterChain upstream(String body, String cacheControl) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            if (cacheControl != null) exchange.getResponse().getHeaders().setCacheControl(cacheControl);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+        };
+    }
+}
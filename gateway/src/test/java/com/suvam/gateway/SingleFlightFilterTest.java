@@ -0,0 +1,210 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.handler.FilteringWebHandler;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.Connection;
+import reactor.netty.NettyInbound;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CLIENT_RESPONSE_CONN_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class SingleFlightFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlightFilter filter = new SingleFlightFilter("product", 1024,
+            List.of("/api/products/stream"), meterRegistry);
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final Sinks.Empty<Void> release = Sinks.empty();
+
+    @DisplayName("Concurrent Identical GETs - One Upstream Call")
+    @Test
+    void test_When_Identical_Gets_In_Flight_Then_Shared() {
+
+        GatewayFilterChain upstream = slowUpstream("{\"id\":1}");
+        MockServerWebExchange leader = get("/api/products/1");
+        MockServerWebExchange follower1 = get("/api/products/1");
+        MockServerWebExchange follower2 = get("/api/products/1");
+        filter.filter(leader, upstream).subscribe();
+        filter.filter(follower1, upstream).subscribe();
+        filter.filter(follower2, upstream).subscribe();
+
+        release.tryEmitEmpty();
+
+        assertEquals(1, upstreamCalls.get());
+        for (MockServerWebExchange exchange : List.of(leader, follower1, follower2)) {
+            assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+            assertEquals("{\"id\":1}", exchange.getResponse().getBodyAsString().block());
+        }
+        assertEquals("shared", follower1.getResponse().getHeaders().getFirst(SingleFlightFilter.SINGLE_FLIGHT_HEADER));
+        assertEquals(2.0, meterRegistry.get("gateway.singleflight.requests")
+                .tag("route", "product").tag("outcome", "shared").counter().count());
+    }
+
+    @DisplayName("Flight Over - Next Request Goes Upstream")
+    @Test
+    void test_When_Flight_Completed_Then_Not_Reused() {
+
+        release.tryEmitEmpty();
+        filter.filter(get("/api/products/1"), slowUpstream("{\"id\":1}")).block();
+        filter.filter(get("/api/products/1"), slowUpstream("{\"id\":1}")).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @DisplayName("Different Query Or Accept - Separate Flights")
+    @Test
+    void test_When_Requests_Differ_Then_Not_Shared() {
+
+        GatewayFilterChain upstream = slowUpstream("[]");
+        filter.filter(get("/api/products?page=1"), upstream).subscribe();
+        filter.filter(get("/api/products?page=2"), upstream).subscribe();
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/products?page=1")
+                .header(HttpHeaders.ACCEPT, "application/xml")), upstream).subscribe();
+
+        release.tryEmitEmpty();
+
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @DisplayName("Authenticated Or User Specific - Never Shared")
+    @Test
+    void test_When_Personal_Request_Then_Bypassed() {
+
+        GatewayFilterChain upstream = slowUpstream("{\"id\":1}");
+        filter.filter(get("/api/products/1"), upstream).subscribe();
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token")), upstream).subscribe();
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/products/1")
+                .header(UserOrIpKeyResolver.USER_HEADER, "42")), upstream).subscribe();
+
+        release.tryEmitEmpty();
+
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @DisplayName("Body Over The Cap - Waiters Go Upstream Themselves")
+    @Test
+    void test_When_Body_Too_Large_Then_Followers_Not_Shared() {
+
+        GatewayFilterChain upstream = slowUpstream("x".repeat(2048));
+        MockServerWebExchange leader = get("/api/products/1");
+        MockServerWebExchange follower = get("/api/products/1");
+        filter.filter(leader, upstream).subscribe();
+        filter.filter(follower, upstream).subscribe();
+
+        release.tryEmitEmpty();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(2048, follower.getResponse().getBodyAsString().block().length());
+        assertNull(follower.getResponse().getHeaders().getFirst(SingleFlightFilter.SINGLE_FLIGHT_HEADER));
+    }
+
+    @DisplayName("Gateway Filter Chain - Shared Body Comes From NettyWriteResponseFilter")
+    @Test
+    void test_When_Run_Through_Gateway_Chain_Then_Shared_And_Cached() {
+
+        //cache and single-flight as GatewayConfig sets them up, the body written by the real write filter
+        Route route = Route.async()
+                .id("product")
+                .uri("lb://PRODUCT")
+                .predicate(exchange -> true)
+                .filters(new ResponseCacheFilter(new ResponseCache(1024 * 1024), Duration.ofMinutes(1), 1024,
+                        List.of()), filter)
+                .build();
+        FilteringWebHandler handler = new FilteringWebHandler(List.of(
+                new NettyWriteResponseFilter(List.of(MediaType.APPLICATION_NDJSON)),
+                new UpstreamStub("{\"id\":1}")), false);
+
+        MockServerWebExchange leader = routed("/api/products/1", route);
+        MockServerWebExchange follower = routed("/api/products/1", route);
+        handler.handle(leader).subscribe();
+        handler.handle(follower).subscribe();
+
+        release.tryEmitEmpty();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("{\"id\":1}", leader.getResponse().getBodyAsString().block());
+        assertEquals("{\"id\":1}", follower.getResponse().getBodyAsString().block());
+        assertEquals("shared", follower.getResponse().getHeaders().getFirst(SingleFlightFilter.SINGLE_FLIGHT_HEADER));
+
+        //the cache sits in front of the flight and got the body as well
+        MockServerWebExchange later = routed("/api/products/1", route);
+        handler.handle(later).block();
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("HIT", later.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_HEADER));
+    }
+
+    //stands in for NettyRoutingFilter: sets the status and leaves the body on the client connection
+    private final class UpstreamStub implements GlobalFilter, Ordered {
+        private final Connection connection;
+
+        private UpstreamStub(String body) {
+            NettyInbound inbound = mock(NettyInbound.class);
+            when(inbound.receive()).thenReturn(ByteBufFlux.fromString(Mono.just(body)));
+            this.connection = mock(Connection.class);
+            when(connection.inbound()).thenReturn(inbound);
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.fromRunnable(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                exchange.getAttributes().put(CLIENT_RESPONSE_CONN_ATTR, connection);
+            }));
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+
+    private static MockServerWebExchange routed(String path, Route route) {
+        MockServerWebExchange exchange = get(path);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    //answers once release completes, so requests pile up behind the first one
+    private GatewayFilterChain slowUpstream(String body) {
+        return exchange -> {
+            upstreamCalls.incrementAndGet();
+            return release.asMono().then(Mono.defer(() -> {
+                exchange.getResponse().setStatusCode(HttpStatus.OK);
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(bytes)));
+            }));
+        };
+    }
+
+    private static MockServerWebExchange get(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+}
@@ -0,0 +1,140 @@
+package com.suvam.gateway;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(1_000_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(
+            new LocalTokenBucketStore(1000, Duration.ofMinutes(10), nanos::get),
+            Map.of("order", new RateLimitQuota(3, 1)),
+            meterRegistry, 1000, Duration.ofMinutes(10));
+
+    @DisplayName("Burst - Allowed Up To Capacity, Then 429 With Retry-After")
+    @Test
+    void test_When_Burst_Used_Then_Rejected_With_Retry_After() {
+
+        for (int i = 2; i >= 0; i--) {
+            RateLimiter.Response response = rateLimiter.isAllowed("order", "user:1").block();
+            assertTrue(response.isAllowed());
+            assertEquals(String.valueOf(i), response.getHeaders().get(TokenBucketRateLimiter.REMAINING_HEADER));
+        }
+
+        RateLimiter.Response rejected = rateLimiter.isAllowed("order", "user:1").block();
+
+        assertFalse(rejected.isAllowed());
+        assertEquals("1", rejected.getHeaders().get(TokenBucketRateLimiter.RETRY_AFTER_HEADER));
+        assertEquals(1, rateLimiter.topRejected(10).size());
+        assertEquals(1.0, meterRegistry.get("gateway.ratelimit.requests")
+                .tag("route", "order").tag("outcome", "rejected").tag("key.type", "user").counter().count());
+    }
+
+    @DisplayName("Refill - One Token Per Interval")
+    @Test
+    void test_When_Time_Passes_Then_Tokens_Refilled() {
+
+        for (int i = 0; i < 3; i++) rateLimiter.isAllowed("order", "user:1").block();
+        assertFalse(rateLimiter.isAllowed("order", "user:1").block().isAllowed());
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        assertTrue(rateLimiter.isAllowed("order", "user:1").block().isAllowed());
+        assertFalse(rateLimiter.isAllowed("order", "user:1").block().isAllowed());
+    }
+
+    @DisplayName("Keys - Buckets Are Independent")
+    @Test
+    void test_When_Other_Key_Then_Own_Bucket() {
+
+        for (int i = 0; i < 3; i++) rateLimiter.isAllowed("order", "user:1").block();
+
+        assertTrue(rateLimiter.isAllowed("order", "user:2").block().isAllowed());
+        assertTrue(rateLimiter.isAllowed("order", "ip:10.0.0.1").block().isAllowed());
+    }
+
+    @DisplayName("Address And User Key - Fresh User Ids Still Share The Address Bucket")
+    @Test
+    void test_When_Address_Bucket_Empty_Then_Any_User_Rejected() {
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.isAllowed("order", "ip:10.0.0.1,user:" + i).block().isAllowed());
+        }
+
+        RateLimiter.Response rejected = rateLimiter.isAllowed("order", "ip:10.0.0.1,user:99").block();
+
+        assertFalse(rejected.isAllowed());
+        assertEquals("1", rejected.getHeaders().get(TokenBucketRateLimiter.RETRY_AFTER_HEADER));
+        //the user bucket was not charged for the rejected request
+        assertEquals("2", rateLimiter.isAllowed("order", "ip:10.0.0.2,user:99").block()
+                .getHeaders().get(TokenBucketRateLimiter.REMAINING_HEADER));
+    }
+
+    @DisplayName("Address And User Key - User Bucket Empty, Rejected")
+    @Test
+    void test_When_User_Bucket_Empty_Then_Rejected_From_Any_Address() {
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(rateLimiter.isAllowed("order", "ip:10.0.0." + i + ",user:1").block().isAllowed());
+        }
+
+        assertFalse(rateLimiter.isAllowed("order", "ip:10.0.0.9,user:1").block().isAllowed());
+    }
+
+    @DisplayName("New Config - Default Quota")
+    @Test
+    void test_When_New_Config_Then_Default_Quota() {
+
+        assertEquals(TokenBucketRateLimiter.DEFAULT_QUOTA, rateLimiter.newConfig());
+    }
+
+    @DisplayName("Route Without Quota - Always Allowed")
+    @Test
+    void test_When_Route_Has_No_Quota_Then_Allowed() {
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.isAllowed("eureka", "user:1").block().isAllowed());
+        }
+    }
+
+    @DisplayName("Concurrent Requests - Never More Than The Burst")
+    @Test
+    void test_When_Concurrent_Then_Exactly_Burst_Allowed() throws Exception {
+
+        LocalTokenBucketStore store = new LocalTokenBucketStore(10, Duration.ofMinutes(1), nanos::get);
+        RateLimitQuota quota = new RateLimitQuota(100, 1);
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (store.tryAcquire("order|user:1", quota).allowed()) allowed.incrementAndGet();
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(100, allowed.get());
+    }
+}
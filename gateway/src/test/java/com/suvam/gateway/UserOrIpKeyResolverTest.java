@@ -0,0 +1,36 @@
+package com.suvam.gateway;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserOrIpKeyResolverTest {
+
+    private final UserOrIpKeyResolver keyResolver = new UserOrIpKeyResolver();
+
+    @DisplayName("Anonymous Caller - Address Key Only")
+    @Test
+    void test_When_No_User_Then_Address_Key() {
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/products")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 5000)));
+
+        assertEquals("ip:10.0.0.1", keyResolver.resolve(exchange).block());
+    }
+
+    @DisplayName("Signed-In Caller - Address And User Key")
+    @Test
+    void test_When_User_Then_Address_And_User_Key() {
+
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/orders")
+                .remoteAddress(new InetSocketAddress("10.0.0.1", 5000))
+                .header(UserOrIpKeyResolver.USER_HEADER, "4,2"));
+
+        assertEquals("ip:10.0.0.1,user:42", keyResolver.resolve(exchange).block());
+    }
+}
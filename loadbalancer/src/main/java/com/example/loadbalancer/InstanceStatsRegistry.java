@@ -0,0 +1,121 @@
+package com.example.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/*
+ * Per-instance load and health as seen from this process, shared by every load balanced service.
+ * Latency is an exponentially weighted moving average that decays towards zero while an instance
+ * gets no traffic, so an instance that was slow is tried again after a while instead of being
+ * starved for good. An instance whose recent error rate crosses the threshold is ejected for a while.
+ */
+public class InstanceStatsRegistry {
+    private static final double LATENCY_WEIGHT = 0.3;
+    private static final double ERROR_WEIGHT = 0.1;
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+    private final LongSupplier nanoClock;
+    private final long decayNanos;
+    private final double ejectionErrorRate;
+    private final int ejectionMinimumRequests;
+    private final long ejectionNanos;
+
+    public InstanceStatsRegistry(LongSupplier nanoClock, Duration decay, double ejectionErrorRate,
+                                 int ejectionMinimumRequests, Duration ejection) {
+        this.nanoClock = nanoClock;
+        this.decayNanos = decay.toNanos();
+        this.ejectionErrorRate = ejectionErrorRate;
+        this.ejectionMinimumRequests = ejectionMinimumRequests;
+        this.ejectionNanos = ejection.toNanos();
+    }
+
+    //settings under <prefix>.latency-decay-seconds and <prefix>.ejection.*, e.g. gateway.load-balancer
+    public static InstanceStatsRegistry from(Environment environment, String prefix) {
+        return new InstanceStatsRegistry(System::nanoTime,
+                Duration.ofSeconds(environment.getProperty(prefix + ".latency-decay-seconds", Long.class, 10L)),
+                environment.getProperty(prefix + ".ejection.error-rate", Double.class, 0.5),
+                environment.getProperty(prefix + ".ejection.minimum-requests", Integer.class, 20),
+                Duration.ofSeconds(environment.getProperty(prefix + ".ejection.duration-seconds", Long.class, 30L)));
+    }
+
+    public static final class InstanceStats {
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private boolean sampled;
+        private double latencyEwmaNanos;
+        private double errorRate;
+        private int requests;
+        private long lastUpdateNanos;
+        private long ejectedUntilNanos;
+    }
+
+    public void start(ServiceInstance instance) {
+        statsOf(instance).outstanding.incrementAndGet();
+    }
+
+    public void complete(ServiceInstance instance, long latencyNanos, boolean failed) {
+        InstanceStats instanceStats = statsOf(instance);
+        instanceStats.outstanding.updateAndGet(outstanding -> Math.max(0, outstanding - 1));
+        long now = nanoClock.getAsLong();
+        synchronized (instanceStats) {
+            if (instanceStats.sampled) {
+                double latency = decayedLatency(instanceStats, now);
+                instanceStats.latencyEwmaNanos = latency + LATENCY_WEIGHT * (latencyNanos - latency);
+            } else {
+                instanceStats.latencyEwmaNanos = latencyNanos;
+                instanceStats.sampled = true;
+            }
+            instanceStats.errorRate += ERROR_WEIGHT * ((failed ? 1 : 0) - instanceStats.errorRate);
+            instanceStats.requests++;
+            instanceStats.lastUpdateNanos = now;
+            if (instanceStats.requests >= ejectionMinimumRequests && instanceStats.errorRate >= ejectionErrorRate) {
+                //back after the ejection with a clean record, it has to fail repeatedly again to be ejected again
+                instanceStats.ejectedUntilNanos = now + ejectionNanos;
+                instanceStats.errorRate = 0;
+                instanceStats.requests = 0;
+            }
+        }
+    }
+
+    //empty until the first call to the instance has completed
+    public OptionalDouble latencyNanos(ServiceInstance instance) {
+        InstanceStats instanceStats = statsOf(instance);
+        synchronized (instanceStats) {
+            return instanceStats.sampled
+                    ? OptionalDouble.of(decayedLatency(instanceStats, nanoClock.getAsLong()))
+                    : OptionalDouble.empty();
+        }
+    }
+
+    public boolean isEjected(ServiceInstance instance) {
+        InstanceStats instanceStats = statsOf(instance);
+        synchronized (instanceStats) {
+            return nanoClock.getAsLong() < instanceStats.ejectedUntilNanos;
+        }
+    }
+
+    public int outstanding(ServiceInstance instance) {
+        return statsOf(instance).outstanding.get();
+    }
+
+    private double decayedLatency(InstanceStats instanceStats, long now) {
+        long idle = Math.max(0, now - instanceStats.lastUpdateNanos);
+        return instanceStats.latencyEwmaNanos * Math.exp(-(double) idle / decayNanos);
+    }
+
+    private InstanceStats statsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(key(instance), key -> new InstanceStats());
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null
+                ? instance.getServiceId() + "/" + instance.getInstanceId()
+                : instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.OptionalDouble;
+import java.util.concurrent.ThreadLocalRandom;
+
+/*
+ * Power of two choices: pick two instances at random and send the request to the cheaper one, by
+ * latency EWMA times outstanding requests. Two random picks avoid the herding you get from always
+ * choosing the global best, while still steering clear of slow or overloaded instances.
+ * Ejected instances are skipped unless every instance is ejected.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final InstanceStatsRegistry instanceStatsRegistry;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId, InstanceStatsRegistry instanceStatsRegistry) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.instanceStatsRegistry = instanceStatsRegistry;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable();
+        if (supplier == null) {
+            return Mono.just(new EmptyResponse());
+        }
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        List<ServiceInstance> candidates = instances.stream()
+                .filter(instance -> !instanceStatsRegistry.isEjected(instance))
+                .toList();
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return new DefaultResponse(candidates.getFirst());
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) second++;
+        return new DefaultResponse(cheaper(candidates.get(first), candidates.get(second)));
+    }
+
+    //expected cost of one more request is the latency times the requests already queued there
+    private ServiceInstance cheaper(ServiceInstance a, ServiceInstance b) {
+        OptionalDouble latencyA = instanceStatsRegistry.latencyNanos(a);
+        OptionalDouble latencyB = instanceStatsRegistry.latencyNanos(b);
+        //an instance nothing came back from yet is taken to be as fast as the other one
+        double costA = (latencyA.orElse(latencyB.orElse(0)) + 1) * (instanceStatsRegistry.outstanding(a) + 1);
+        double costB = (latencyB.orElse(latencyA.orElse(0)) + 1) * (instanceStatsRegistry.outstanding(b) + 1);
+        return costA <= costB ? a : b;
+    }
+}
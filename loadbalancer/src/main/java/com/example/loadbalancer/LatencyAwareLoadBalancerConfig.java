@@ -0,0 +1,27 @@
+package com.example.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+//loaded into each service's load balancer child context, not a @Configuration so component scan leaves it alone
+public class LatencyAwareLoadBalancerConfig {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(Environment environment,
+                                                                         LoadBalancerClientFactory loadBalancerClientFactory,
+                                                                         InstanceStatsRegistry instanceStatsRegistry) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, instanceStatsRegistry);
+    }
+
+    @Bean
+    public InstanceStatsLifecycle instanceStatsLifecycle(InstanceStatsRegistry instanceStatsRegistry) {
+        return new InstanceStatsLifecycle(instanceStatsRegistry);
+    }
+}
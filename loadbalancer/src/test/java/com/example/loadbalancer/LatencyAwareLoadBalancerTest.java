@@ -0,0 +1,135 @@
+package com.example.loadbalancer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyAwareLoadBalancerTest {
+
+    private final AtomicLong nanos = new AtomicLong(1);
+    private final InstanceStatsRegistry registry = new InstanceStatsRegistry(nanos::get, Duration.ofSeconds(10),
+            0.5, 20, Duration.ofSeconds(30));
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(null, "product", registry);
+
+    private final ServiceInstance fast1 = instance("fast-1");
+    private final ServiceInstance fast2 = instance("fast-2");
+    private final ServiceInstance slow = instance("slow");
+    private final List<ServiceInstance> instances = List.of(fast1, fast2, slow);
+
+    @DisplayName("Slow Instance - Gets Little Traffic")
+    @Test
+    void test_When_One_Instance_Slow_Then_It_Is_Avoided() {
+
+        Map<ServiceInstance, Long> latencies = Map.of(fast1, ms(10), fast2, ms(12), slow, ms(400));
+        Map<ServiceInstance, Integer> picks = simulate(latencies, Map.of(), 20000);
+
+        //round robin would give it a third of the requests
+        assertTrue(picks.getOrDefault(slow, 0) < 1000, "slow instance got " + picks.get(slow));
+        assertTrue(picks.getOrDefault(fast1, 0) > 7000);
+        assertTrue(picks.getOrDefault(fast2, 0) > 7000);
+    }
+
+    @DisplayName("Failing Instance - Ejected")
+    @Test
+    void test_When_Instance_Keeps_Failing_Then_Ejected() {
+
+        Map<ServiceInstance, Long> latencies = Map.of(fast1, ms(10), fast2, ms(10), slow, ms(10));
+        simulate(latencies, Map.of(slow, true), 600);
+
+        assertTrue(registry.isEjected(slow));
+        for (int i = 0; i < 200; i++) {
+            assertNotEquals(slow, loadBalancer.choose(instances).getServer());
+        }
+
+        //back in rotation once the ejection is over
+        nanos.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertFalse(registry.isEjected(slow));
+    }
+
+    @DisplayName("All Instances Ejected - Still Served")
+    @Test
+    void test_When_All_Ejected_Then_Choose_Among_All() {
+
+        Map<ServiceInstance, Long> latencies = Map.of(fast1, ms(10));
+        simulate(latencies, Map.of(fast1, true), 400);
+        assertTrue(registry.isEjected(fast1));
+
+        assertEquals(fast1, loadBalancer.choose(List.of(fast1)).getServer());
+    }
+
+    @DisplayName("Recovered Instance - Tried Again After Idling")
+    @Test
+    void test_When_Slow_Instance_Idles_Then_Latency_Decays() {
+
+        registry.complete(slow, ms(400), false);
+        registry.complete(fast1, ms(10), false);
+        assertTrue(registry.latencyNanos(slow).getAsDouble() > registry.latencyNanos(fast1).getAsDouble());
+
+        nanos.addAndGet(Duration.ofSeconds(60).toNanos());
+        registry.complete(fast1, ms(10), false);
+
+        assertTrue(registry.latencyNanos(slow).getAsDouble() < registry.latencyNanos(fast1).getAsDouble());
+    }
+
+    @DisplayName("Outstanding Requests - Busy Instance Avoided")
+    @Test
+    void test_When_Instance_Has_Many_Outstanding_Then_Other_Chosen() {
+
+        for (int i = 0; i < 50; i++) registry.start(fast1);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(fast2, loadBalancer.choose(List.of(fast1, fast2)).getServer());
+        }
+    }
+
+    @DisplayName("No Instances - Empty Response")
+    @Test
+    void test_When_No_Instances_Then_Empty() {
+
+        assertFalse(loadBalancer.choose(List.of()).hasServer());
+    }
+
+    //each request completes after its instance's latency, 20 requests start per millisecond
+    private Map<ServiceInstance, Integer> simulate(Map<ServiceInstance, Long> latencies,
+                                                   Map<ServiceInstance, Boolean> failing, int requests) {
+        List<ServiceInstance> pool = List.copyOf(latencies.keySet());
+        Map<ServiceInstance, Integer> picks = new HashMap<>();
+        List<long[]> inFlight = new ArrayList<>();
+        List<ServiceInstance> inFlightInstances = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            if (i % 20 == 0) nanos.addAndGet(ms(1));
+            for (int j = inFlight.size() - 1; j >= 0; j--) {
+                if (inFlight.get(j)[0] <= nanos.get()) {
+                    ServiceInstance done = inFlightInstances.remove(j);
+                    inFlight.remove(j);
+                    registry.complete(done, latencies.get(done), failing.getOrDefault(done, false));
+                }
+            }
+            ServiceInstance chosen = loadBalancer.choose(pool).getServer();
+            picks.merge(chosen, 1, Integer::sum);
+            registry.start(chosen);
+            inFlight.add(new long[]{nanos.get() + latencies.get(chosen)});
+            inFlightInstances.add(chosen);
+        }
+        return picks;
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static ServiceInstance instance(String id) {
+        return new DefaultServiceInstance(id, "product", id + ".local", 8080, false);
+    }
+}
@@ -1,72 +1,94 @@
 package com.example.order.Services;
 
 import com.example.order.clients.ProductServiceClient;
-import com.example.order.clients.UserServiceClient;
+import com.example.order.clients.UserExistenceChecker;
 import com.example.order.dtos.CartItemRequest;
 import com.example.order.dtos.ProductResponse;
-import com.example.order.dtos.UserResponse;
 import com.example.order.models.CartItem;
-import com.example.order.repositories.CartItemRepository;
+import com.example.order.repositories.CartStore;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
+//no class-wide transaction, addToCart must not hold a connection while it waits on the remote checks
 @Service
-@Transactional
 public class CartService {
     @Autowired
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
     @Autowired
     private ProductServiceClient productServiceClient;
     @Autowired
-    private UserServiceClient userServiceClient;
+    private UserExistenceChecker userExistenceChecker;
+    @Autowired
+    @Qualifier("remoteCallExecutor")
+    private Executor remoteCallExecutor;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
 
     public boolean addToCart(String userId, CartItemRequest request) {
-        //look for product
-        ProductResponse productResponse = productServiceClient.getProductDetails(request.getProductId());
-        if (productResponse==null || productResponse.getStockQuantity()<request.getQuantity()) return false;
-
-        UserResponse userResponse = userServiceClient.getUserDetails(userId);
-        if (userResponse == null)
+        //look for product and user concurrently
+        CompletionService<Boolean> checks = new ExecutorCompletionService<>(remoteCallExecutor);
+        AtomicReference<BigDecimal> price = new AtomicReference<>();
+        List<Future<Boolean>> running = List.of(
+                checks.submit(() -> {
+                    ProductResponse productResponse = productServiceClient.getProductDetails(request.getProductId());
+                    if (productResponse == null || productResponse.getStockQuantity() < request.getQuantity()) return false;
+                    //the cart keeps the price seen when the item was added, checkout does not fetch it again
+                    price.set(productResponse.getPrice());
+                    return true;
+                }),
+                checks.submit(() -> userExistenceChecker.exists(userId)));
+        if (!allValid(checks, running))
             return false;
 
-        CartItem existingCartItem = cartItemRepository.findByUserIdAndProductId(userId, request.getProductId());
-        if (existingCartItem != null){
-            //update the quantity
-            existingCartItem.setQuantity(existingCartItem.getQuantity() + request.getQuantity());
-            existingCartItem.setPrice(BigDecimal.valueOf(1000.00));
-            cartItemRepository.save(existingCartItem);
-        }else {
-            //create new cart
-            CartItem cartItem = new CartItem();
-            cartItem.setUserId(userId);
-            cartItem.setProductId(request.getProductId());
-            cartItem.setQuantity(request.getQuantity());
-            cartItem.setPrice(BigDecimal.valueOf(1000.00));
-            cartItemRepository.save(cartItem);
-        }
+        transactionTemplate.executeWithoutResult(status ->
+                cartStore.addItem(userId, request.getProductId(), request.getQuantity(), price.get()));
         return true;
     }
 
+    @Transactional
     public boolean deleteItemFromCart(String userId, String productId) {
-        CartItem cartItem = cartItemRepository.findByUserIdAndProductId(userId, productId);
-
-        if (cartItem != null){
-            cartItemRepository.delete(cartItem);
-            return true;
-        }
-        return false;
+        return cartStore.removeItem(userId, productId);
     }
 
+    @Transactional
     public List<CartItem> getCart(String userId) {
-        return cartItemRepository.findByUserId(userId);
+        return cartStore.getItems(userId);
     }
 
+    @Transactional
     public void clearCart(String userId) {
-        cartItemRepository.deleteByUserId(userId);
+        cartStore.clear(userId);
+    }
+
+    //returns as soon as one check rejects or fails, the checks still running are interrupted
+    private boolean allValid(CompletionService<Boolean> checks, List<Future<Boolean>> running) {
+        try {
+            for (int i = 0; i < running.size(); i++) {
+                if (!checks.take().get()) return false;
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking the cart item", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            //FutureTask.cancel(true) interrupts the thread running the check, finished ones ignore it
+            running.forEach(check -> check.cancel(true));
+        }
     }
 
 }
@@ -0,0 +1,25 @@
+package com.example.order.Services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+    @Value("${order.idempotency.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${order.idempotency.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Bean
+    public IdempotencyStore idempotencyStore(MeterRegistry meterRegistry) {
+        IdempotencyStore store = new IdempotencyStore(maximumSize, Duration.ofMinutes(ttlMinutes));
+        CaffeineCacheMetrics.monitor(meterRegistry, store.getCache(), "idempotency");
+        return store;
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.order.Services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.ResponseEntity;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/*
+ * Remembers the response produced for an Idempotency-Key so a retried request gets the same answer
+ * without doing the work again. A duplicate that arrives while the first request is still running
+ * waits for it and replays its response. Reusing a key with a different request body answers 422.
+ *
+ * Keys live in this instance's memory only. With several order instances behind the load balancer a
+ * retry can land on another instance, which has never seen the key and runs the request again; a
+ * shared store (a table keyed by scope and key, Redis) is needed before relying on it across instances.
+ */
+public class IdempotencyStore {
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record Execution(String fingerprint, CompletableFuture<ResponseEntity<?>> response) {
+    }
+
+    //property and map key order fixed, so equal requests always serialise to the same bytes
+    private static final ObjectMapper CANONICAL_JSON = JsonMapper.builder()
+            .enable(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY)
+            .enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS)
+            .build();
+
+    private final Cache<String, Execution> executions;
+
+    public IdempotencyStore(long maximumSize, Duration ttl) {
+        this.executions = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    //scope keeps keys of different users and endpoints apart, requests without a key always run
+    public <T> ResponseEntity<T> execute(String scope, String key, String fingerprint,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        String cacheKey = scope + '\u0000' + key;
+        Execution execution = new Execution(fingerprint, new CompletableFuture<>());
+        Execution existing = executions.asMap().putIfAbsent(cacheKey, execution);
+        if (existing != null) {
+            if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+                return ResponseEntity.unprocessableEntity().build();
+            }
+            return replay(existing.response());
+        }
+
+        try {
+            ResponseEntity<T> response = action.get();
+            execution.response().complete(response);
+            return response;
+        } catch (Throwable e) {
+            //a failure is not remembered, the client's next retry runs the request again. Errors and
+            //sneaky checked exceptions too, or duplicates waiting on the same key would block forever
+            executions.asMap().remove(cacheKey, execution);
+            execution.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    //SHA-256 of the request as canonical JSON, independent of how the request class prints itself
+    public static String fingerprint(Object request) {
+        try {
+            byte[] json = CANONICAL_JSON.writeValueAsBytes(request);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Request cannot be fingerprinted", e);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Cache<String, ?> getCache() {
+        return executions;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ResponseEntity<T> replay(CompletableFuture<ResponseEntity<?>> response) {
+        ResponseEntity<T> original;
+        try {
+            original = (ResponseEntity<T>) response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            if (e.getCause() instanceof Error error) throw error;
+            throw e;
+        }
+        return ResponseEntity.status(original.getStatusCode())
+                .headers(original.getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(original.getBody());
+    }
+}
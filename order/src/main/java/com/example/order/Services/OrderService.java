@@ -1,27 +1,56 @@
 package com.example.order.Services;
 
+import com.example.order.clients.ProductServiceClient;
+import com.example.order.dtos.OrderCursor;
 import com.example.order.dtos.OrderItemDTO;
+import com.example.order.dtos.OrderLineView;
 import com.example.order.dtos.OrderResponse;
+import com.example.order.dtos.OrderSummary;
+import com.example.order.dtos.StockReservationRequest;
+import com.example.order.events.OrderEventOutbox;
 import com.example.order.models.CartItem;
 import com.example.order.models.Order;
 import com.example.order.models.OrderItem;
 import com.example.order.models.OrderStatus;
 import com.example.order.repositories.OrderRepository;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
 public class OrderService {
+    private static final Logger logger = LoggerFactory.getLogger(OrderService.class);
+
     @Autowired
     private CartService cartService;
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ProductServiceClient productServiceClient;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     public Optional<OrderResponse> createOrder(String userId) {
         //validate for cart items
         List<CartItem> cartItems = cartService.getCart(userId);
@@ -36,34 +65,106 @@ public class OrderService {
 //        }
 //        User user = userOptional.get();
 
-        //calculate total price
-        BigDecimal totalPrice = cartItems.stream()
-                .map(CartItem::getPrice)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
         //create order
         Order order = new Order();
         order.setUserId(userId);
         order.setStatus(OrderStatus.CONFIRMED);
-        order.setTotalAmount(totalPrice);
 
-        List<OrderItem> orderItems = cartItems.stream()
-                .map(item -> new OrderItem(
-                        null,
-                        item.getProductId(),
-                        item.getQuantity(),
-                        item.getPrice(),
-                        order
-                ))
-                .toList();
+        //price every line and the order in a single pass, the results are stored with the order
+        List<OrderItem> orderItems = new ArrayList<>(cartItems.size());
+        List<StockReservationRequest> reservations = new ArrayList<>(cartItems.size());
+        BigDecimal totalPrice = BigDecimal.ZERO;
+        for (CartItem item : cartItems) {
+            BigDecimal subTotal = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            orderItems.add(new OrderItem(
+                    null,
+                    item.getProductId(),
+                    item.getQuantity(),
+                    item.getPrice(),
+                    subTotal,
+                    order
+            ));
+            reservations.add(new StockReservationRequest(item.getProductId(), item.getQuantity()));
+            totalPrice = totalPrice.add(subTotal);
+        }
         order.setItems(orderItems);
-        Order saveOrder = orderRepository.save(order);
+        order.setTotalAmount(totalPrice);
+
+        //take the stock for the whole cart in one call, nothing is reserved if any line is short
+        ResponseEntity<Void> reserved;
+        try {
+            reserved = productServiceClient.reserveStock(reservations);
+        } catch (ResourceAccessException e) {
+            //timed out or cut off once the request was out, the product service may well have committed
+            if (!neverSent(e)) releaseAfterUnknownReservation(userId, reservations);
+            throw e;
+        }
+        if (reserved == null || !reserved.getStatusCode().is2xxSuccessful()) {
+            return Optional.empty();
+        }
 
-        //clear the cart
-        cartService.clearCart(userId);
+        //the order, its OrderCreated outbox row and the emptied cart commit together,
+        //everything that reacts to the order runs later from OutboxRelay
+        Order saveOrder;
+        try {
+            saveOrder = transactionTemplate.execute(status -> {
+                Order saved = orderRepository.save(order);
+                orderEventOutbox.orderCreated(saved);
+                cartService.clearCart(userId);
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            productServiceClient.releaseStock(reservations);
+            throw e;
+        }
         return Optional.of(mapToOrderResponse(saveOrder));
     }
 
+    //the connection was never made, so the product service cannot have reserved anything
+    private static boolean neverSent(ResourceAccessException e) {
+        return e.getCause() instanceof ConnectException || e.getCause() instanceof ConnectTimeoutException;
+    }
+
+    //a reserve whose answer was lost is given back, a later failure of this release only gets logged
+    private void releaseAfterUnknownReservation(String userId, List<StockReservationRequest> reservations) {
+        try {
+            productServiceClient.releaseStock(reservations);
+        } catch (RuntimeException e) {
+            logger.error("Could not release stock after a lost reservation answer for user {}: {} {}",
+                    userId, reservations, e.getMessage());
+        }
+    }
+
+    //one query for the page of orders and one for all of their lines, however many orders the user has
+    @Transactional(readOnly = true)
+    public List<OrderResponse> getOrders(String userId, OrderCursor after, int limit) {
+        List<OrderSummary> summaries = after == null
+                ? orderRepository.findOrderSummaries(userId, Limit.of(limit))
+                : orderRepository.findOrderSummariesBefore(userId, after.createTime(), after.id(), Limit.of(limit));
+        if (summaries.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<OrderItemDTO>> itemsByOrder = new HashMap<>();
+        for (OrderLineView line : orderRepository.findOrderLines(summaries.stream().map(OrderSummary::id).toList())) {
+            itemsByOrder.computeIfAbsent(line.orderId(), id -> new ArrayList<>()).add(line.toDto());
+        }
+        return summaries.stream()
+                .map(summary -> new OrderResponse(
+                        summary.id(),
+                        summary.totalAmount(),
+                        summary.status(),
+                        itemsByOrder.getOrDefault(summary.id(), List.of()),
+                        summary.createTime()
+                )).toList();
+    }
+
+    //orders of other users are reported as missing
+    @Transactional(readOnly = true)
+    public Optional<OrderResponse> getOrder(String userId, Long orderId) {
+        return orderRepository.findWithItems(orderId, userId).map(this::mapToOrderResponse);
+    }
+
     private OrderResponse mapToOrderResponse(Order order) {
         return new OrderResponse(
                 order.getId(),
@@ -75,7 +176,7 @@ public class OrderService {
                                 orderItem.getProductId(),
                                 orderItem.getQuantity(),
                                 orderItem.getPrice(),
-                                orderItem.getPrice().multiply(new BigDecimal(orderItem.getQuantity()))
+                                orderItem.getSubTotal()
                         )).toList(),
                 order.getCreateAt()
         );
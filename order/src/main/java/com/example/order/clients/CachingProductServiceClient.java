@@ -0,0 +1,87 @@
+package com.example.order.clients;
+
+import com.example.order.dtos.ProductResponse;
+import com.example.order.dtos.StockReservationRequest;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+/*
+ * Near-cache for product details. Price, metadata and stock arrive in one response and are cached
+ * together for ttl (2s by default), short enough that the stock shown is close to the table's.
+ * Entries read after refreshAfter are reloaded in the background, so a busy product is served from
+ * memory without ever waiting on the product service; only a cold or idle one costs a remote call.
+ */
+public class CachingProductServiceClient implements ProductServiceClient {
+    private final ProductServiceClient delegate;
+    private final LoadingCache<String, ProductResponse> cache;
+
+    public CachingProductServiceClient(ProductServiceClient delegate, Executor executor, long maximumSize,
+                                       Duration ttl, Duration refreshAfter) {
+        this(delegate, executor, maximumSize, ttl, refreshAfter, Ticker.systemTicker());
+    }
+
+    CachingProductServiceClient(ProductServiceClient delegate, Executor executor, long maximumSize,
+                                Duration ttl, Duration refreshAfter, Ticker ticker) {
+        this.delegate = delegate;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .refreshAfterWrite(refreshAfter)
+                .executor(executor)
+                .ticker(ticker)
+                .recordStats()
+                .build(this::load);
+    }
+
+    //not found is never cached, the next lookup asks again
+    @Override
+    public ProductResponse getProductDetails(String id) {
+        return cache.get(id);
+    }
+
+    @Override
+    public List<ProductResponse> getProductsDetails(List<String> ids) {
+        List<ProductResponse> products = delegate.getProductsDetails(ids);
+        if (products != null) {
+            products.forEach(product -> cache.put(String.valueOf(product.getId()), product));
+        }
+        return products;
+    }
+
+    //stock of the touched products changed, drop them rather than serve a stale count
+    @Override
+    public ResponseEntity<Void> reserveStock(List<StockReservationRequest> items) {
+        ResponseEntity<Void> response = delegate.reserveStock(items);
+        items.forEach(item -> cache.invalidate(item.getProductId()));
+        return response;
+    }
+
+    @Override
+    public ResponseEntity<Void> releaseStock(List<StockReservationRequest> items) {
+        ResponseEntity<Void> response = delegate.releaseStock(items);
+        items.forEach(item -> cache.invalidate(item.getProductId()));
+        return response;
+    }
+
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public LoadingCache<String, ?> getCache() {
+        return cache;
+    }
+
+    private ProductResponse load(String id) {
+        return delegate.getProductDetails(id);
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.order.clients;
+
+import com.example.order.dtos.ProductResponse;
+import com.example.order.dtos.StockReservationRequest;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+//merges single-id lookups arriving within a short window into one batch call
+public class CoalescingProductServiceClient implements ProductServiceClient, AutoCloseable {
+    private final ProductServiceClient delegate;
+    private final Executor executor;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("product-lookup-coalescer").daemon(true).factory());
+
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<ProductResponse>> pending = new HashMap<>();
+
+    public CoalescingProductServiceClient(ProductServiceClient delegate, Executor executor,
+                                          long windowMillis, int maxBatchSize) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.windowMillis = windowMillis;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @Override
+    public ProductResponse getProductDetails(String id) {
+        //the batch endpoint only understands numeric ids, let anything else fail on its own
+        if (id == null || id.isEmpty() || !id.chars().allMatch(Character::isDigit)) {
+            return delegate.getProductDetails(id);
+        }
+
+        CompletableFuture<ProductResponse> result;
+        Map<String, CompletableFuture<ProductResponse>> fullBatch = null;
+        synchronized (lock) {
+            result = pending.get(id);
+            if (result == null) {
+                result = new CompletableFuture<>();
+                pending.put(id, result);
+                if (pending.size() == 1) {
+                    scheduler.schedule(this::flush, windowMillis, TimeUnit.MILLISECONDS);
+                } else if (pending.size() >= maxBatchSize) {
+                    fullBatch = drain();
+                }
+            }
+        }
+        if (fullBatch != null) dispatch(fullBatch);
+
+        //get() rather than join(), a caller whose check was cancelled is interrupted out of the wait.
+        //the future stays, other callers of the same batch still want it
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for product " + id, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Override
+    public List<ProductResponse> getProductsDetails(List<String> ids) {
+        return delegate.getProductsDetails(ids);
+    }
+
+    @Override
+    public ResponseEntity<Void> reserveStock(List<StockReservationRequest> items) {
+        return delegate.reserveStock(items);
+    }
+
+    @Override
+    public ResponseEntity<Void> releaseStock(List<StockReservationRequest> items) {
+        return delegate.releaseStock(items);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<ProductResponse>> batch;
+        synchronized (lock) {
+            batch = drain();
+        }
+        if (!batch.isEmpty()) dispatch(batch);
+    }
+
+    private Map<String, CompletableFuture<ProductResponse>> drain() {
+        Map<String, CompletableFuture<ProductResponse>> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<String, CompletableFuture<ProductResponse>> batch) {
+        executor.execute(() -> {
+            try {
+                List<ProductResponse> products = delegate.getProductsDetails(new ArrayList<>(batch.keySet()));
+                Map<String, ProductResponse> productsById = new HashMap<>();
+                if (products != null) {
+                    products.forEach(product -> productsById.put(String.valueOf(product.getId()), product));
+                }
+                //ids missing from the batch response behave like a 404 on the single lookup
+                batch.forEach((id, future) -> future.complete(productsById.get(id)));
+            } catch (RuntimeException e) {
+                batch.values().forEach(future -> future.completeExceptionally(e));
+            }
+        });
+    }
+}
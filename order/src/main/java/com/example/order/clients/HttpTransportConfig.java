@@ -0,0 +1,78 @@
+package com.example.order.clients;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+
+import java.net.http.HttpClient;
+
+/*
+ * One connection pool per downstream service, so a slow product service can use up its own
+ * connections but not the user service's. Every call has a connect, pool wait and read timeout.
+ */
+@Configuration
+public class HttpTransportConfig {
+
+    @Bean
+    public ClientHttpRequestFactory productRequestFactory(Environment environment, MeterRegistry meterRegistry) {
+        return requestFactory("product", HttpTransportSettings.from(environment, "product"), meterRegistry);
+    }
+
+    @Bean
+    public ClientHttpRequestFactory userRequestFactory(Environment environment, MeterRegistry meterRegistry) {
+        return requestFactory("user", HttpTransportSettings.from(environment, "user"), meterRegistry);
+    }
+
+    static ClientHttpRequestFactory requestFactory(String client, HttpTransportSettings settings,
+                                                   MeterRegistry meterRegistry) {
+        if (settings.backend() == HttpTransportSettings.Backend.JDK) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_2)
+                    .connectTimeout(settings.connectTimeout())
+                    .build();
+            JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+            requestFactory.setReadTimeout(settings.readTimeout());
+            return requestFactory;
+        }
+
+        TimedConnectionManager connectionManager = new TimedConnectionManager(Timer.builder("http.client.connection.lease")
+                .description("Time spent waiting for a pooled connection")
+                .tag("client", client)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        connectionManager.setMaxTotal(settings.maxConnections());
+        connectionManager.setDefaultMaxPerRoute(settings.maxConnectionsPerRoute());
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(settings.connectTimeout()))
+                .setSocketTimeout(Timeout.of(settings.readTimeout()))
+                .setTimeToLive(TimeValue.of(settings.keepAlive()))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build());
+        //pool size, leased, available and pending (waiting for a connection) per client
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, client).bindTo(meterRegistry);
+
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(settings.connectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(settings.readTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> TimeValue.of(settings.keepAlive()))
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(settings.keepAlive()))
+                .build();
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.order.clients;
+
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+//transport settings of one downstream client, read from order.http.<client>.*
+public record HttpTransportSettings(
+        Backend backend,
+        int maxConnections,
+        int maxConnectionsPerRoute,
+        Duration connectTimeout,
+        Duration readTimeout,
+        Duration connectionRequestTimeout,
+        Duration keepAlive) {
+
+    public enum Backend {
+        //pooled HTTP/1.1 with pool metrics
+        APACHE,
+        //JDK HttpClient, negotiates HTTP/2 and multiplexes over few connections
+        JDK
+    }
+
+    public static HttpTransportSettings from(Environment environment, String client) {
+        String prefix = "order.http." + client + ".";
+        return new HttpTransportSettings(
+                Backend.valueOf(environment.getProperty(prefix + "backend", "apache").toUpperCase()),
+                environment.getProperty(prefix + "max-connections", Integer.class, 100),
+                environment.getProperty(prefix + "max-connections-per-route", Integer.class, 50),
+                Duration.ofMillis(environment.getProperty(prefix + "connect-timeout-ms", Long.class, 500L)),
+                Duration.ofMillis(environment.getProperty(prefix + "read-timeout-ms", Long.class, 2000L)),
+                Duration.ofMillis(environment.getProperty(prefix + "connection-request-timeout-ms", Long.class, 200L)),
+                Duration.ofSeconds(environment.getProperty(prefix + "keep-alive-seconds", Long.class, 30L))
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.order.clients;
+
+import com.example.loadbalancer.InstanceStatsRegistry;
+import com.example.loadbalancer.LatencyAwareLoadBalancerConfig;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+//the balancer itself lives in the shared loadbalancer module, this only wires it in
+@Configuration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfig.class)
+public class LoadBalancerConfig {
+
+    //one registry for every service, the child contexts find it in this parent context
+    @Bean
+    public InstanceStatsRegistry instanceStatsRegistry(Environment environment) {
+        return InstanceStatsRegistry.from(environment, "order.load-balancer");
+    }
+}
@@ -1,12 +1,27 @@
 package com.example.order.clients;
 
 import com.example.order.dtos.ProductResponse;
+import com.example.order.dtos.StockReservationRequest;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
+import org.springframework.web.service.annotation.PostExchange;
+
+import java.util.List;
 
 @HttpExchange
 public interface ProductServiceClient {
     @GetExchange("/api/products/{id}")
     ProductResponse getProductDetails(@PathVariable String id);
+
+    @PostExchange("/api/products/batch")
+    List<ProductResponse> getProductsDetails(@RequestBody List<String> ids);
+
+    @PostExchange("/api/products/stock/reserve")
+    ResponseEntity<Void> reserveStock(@RequestBody List<StockReservationRequest> items);
+
+    @PostExchange("/api/products/stock/release")
+    ResponseEntity<Void> releaseStock(@RequestBody List<StockReservationRequest> items);
 }
@@ -1,19 +1,46 @@
 package com.example.order.clients;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
+import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 
 @Configuration
 public class ProductServiceClientConfig {
+    @Value("${order.product-lookup.coalesce-window-ms:5}")
+    private long coalesceWindowMillis;
+
+    @Value("${order.product-lookup.max-batch-size:100}")
+    private int maxBatchSize;
+
+    @Value("${order.product-cache.maximum-size:10000}")
+    private long cacheMaximumSize;
+
+    //stock is cached with the rest of the product, so this is also how stale a shown stock may be
+    @Value("${order.product-cache.ttl-ms:2000}")
+    private long cacheTtlMillis;
+
+    @Value("${order.product-cache.refresh-after-ms:1000}")
+    private long cacheRefreshAfterMillis;
+
     @Bean
-    public ProductServiceClient productServiceInterface(RestClient.Builder restClientBuilder){
-        RestClient restClient = restClientBuilder
+    public ProductServiceClient productServiceInterface(RestClient.Builder restClientBuilder,
+            @Qualifier("productRequestFactory") ClientHttpRequestFactory productRequestFactory){
+        //clone, the load balanced builder is shared by every client
+        RestClient restClient = restClientBuilder.clone()
+                .requestFactory(productRequestFactory)
                 .baseUrl("http://product")
                 .defaultStatusHandler(HttpStatusCode::is4xxClientError,
                         ((request, response) -> Optional.empty()))
@@ -24,4 +51,24 @@ public class ProductServiceClientConfig {
                 .build();
         return factory.createClient(ProductServiceClient.class);
     }
+
+    //cache -> coalescer -> http
+    @Bean
+    @Primary
+    public CachingProductServiceClient productServiceClient(
+            @Qualifier("productServiceInterface") ProductServiceClient productServiceInterface,
+            @Qualifier("remoteCallExecutor") Executor remoteCallExecutor,
+            MeterRegistry meterRegistry) {
+        //a zero window turns coalescing off
+        ProductServiceClient delegate = coalesceWindowMillis <= 0
+                ? productServiceInterface
+                : new CoalescingProductServiceClient(productServiceInterface, remoteCallExecutor,
+                        coalesceWindowMillis, maxBatchSize);
+        CachingProductServiceClient cachingClient = new CachingProductServiceClient(delegate, remoteCallExecutor,
+                cacheMaximumSize,
+                Duration.ofMillis(cacheTtlMillis),
+                Duration.ofMillis(cacheRefreshAfterMillis));
+        CaffeineCacheMetrics.monitor(meterRegistry, cachingClient.getCache(), "productDetails");
+        return cachingClient;
+    }
 }
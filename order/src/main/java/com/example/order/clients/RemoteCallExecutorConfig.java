@@ -0,0 +1,16 @@
+package com.example.order.clients;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class RemoteCallExecutorConfig {
+    //one virtual thread per remote call, blocking RestClient calls park instead of pinning a platform thread
+    @Bean(destroyMethod = "close")
+    public ExecutorService remoteCallExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.order.clients;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+
+//caches both "exists" and "does not exist" answers, each with its own TTL
+public class UserExistenceChecker {
+    private final UserServiceClient userServiceClient;
+    private final LoadingCache<String, Boolean> cache;
+
+    public UserExistenceChecker(UserServiceClient userServiceClient, long maximumSize,
+                                Duration positiveTtl, Duration negativeTtl) {
+        this(userServiceClient, maximumSize, positiveTtl, negativeTtl, Ticker.systemTicker());
+    }
+
+    //a load that throws (timeout, 5xx) caches nothing, only a 2xx or a 4xx answer is remembered
+    UserExistenceChecker(UserServiceClient userServiceClient, long maximumSize,
+                         Duration positiveTtl, Duration negativeTtl, Ticker ticker) {
+        this.userServiceClient = userServiceClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .ticker(ticker)
+                .expireAfter(new Expiry<String, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(String userId, Boolean exists, long currentTime) {
+                        return (exists ? positiveTtl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String userId, Boolean exists, long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, exists, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String userId, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build(this::load);
+    }
+
+    public boolean exists(String userId) {
+        return cache.get(userId);
+    }
+
+    public LoadingCache<String, Boolean> getCache() {
+        return cache;
+    }
+
+    private Boolean load(String userId) {
+        ResponseEntity<Void> response = userServiceClient.userExists(userId);
+        return response != null && response.getStatusCode().is2xxSuccessful();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.order.clients;
 
 import com.example.order.dtos.UserResponse;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.service.annotation.GetExchange;
 import org.springframework.web.service.annotation.HttpExchange;
@@ -9,4 +10,7 @@ import org.springframework.web.service.annotation.HttpExchange;
 public interface UserServiceClient {
     @GetExchange("/api/users/{id}")
     UserResponse getUserDetails(@PathVariable String id);
+
+    @HttpExchange(method = "HEAD", url = "/api/users/{id}")
+    ResponseEntity<Void> userExists(@PathVariable String id);
 }
@@ -1,19 +1,37 @@
 package com.example.order.clients;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 
+import java.time.Duration;
 import java.util.Optional;
 
 @Configuration
 public class UserServiceClientConfig {
+    @Value("${order.user-cache.maximum-size:50000}")
+    private long cacheMaximumSize;
+
+    @Value("${order.user-cache.positive-ttl-seconds:300}")
+    private long cachePositiveTtlSeconds;
+
+    @Value("${order.user-cache.negative-ttl-seconds:5}")
+    private long cacheNegativeTtlSeconds;
+
     @Bean
-    public UserServiceClient userServiceClientInterface(RestClient.Builder restClientBuilder) {
-        RestClient restClient = restClientBuilder
+    public UserServiceClient userServiceClientInterface(RestClient.Builder restClientBuilder,
+            @Qualifier("userRequestFactory") ClientHttpRequestFactory userRequestFactory) {
+        //clone, the load balanced builder is shared by every client
+        RestClient restClient = restClientBuilder.clone()
+                .requestFactory(userRequestFactory)
                 .baseUrl("http://user")
                 .defaultStatusHandler(HttpStatusCode::is4xxClientError,
                         ((request, response) -> Optional.empty()))
@@ -24,4 +42,13 @@ public class UserServiceClientConfig {
                 .build();
         return factory.createClient(UserServiceClient.class);
     }
+
+    @Bean
+    public UserExistenceChecker userExistenceChecker(UserServiceClient userServiceClient, MeterRegistry meterRegistry) {
+        UserExistenceChecker checker = new UserExistenceChecker(userServiceClient, cacheMaximumSize,
+                Duration.ofSeconds(cachePositiveTtlSeconds),
+                Duration.ofSeconds(cacheNegativeTtlSeconds));
+        CaffeineCacheMetrics.monitor(meterRegistry, checker.getCache(), "userExistence");
+        return checker;
+    }
 }
@@ -0,0 +1,50 @@
+package com.example.order.controllers;
+
+import com.example.order.clients.CachingProductServiceClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+//called by the product service when a product changes, not routed through the gateway. Anyone who can
+//reach this port could still flush the cache, so purges carry the same token the gateway checks
+@RestController
+@RequestMapping("/internal/cache")
+public class CacheController {
+    public static final String TOKEN_HEADER = "X-Cache-Purge-Token";
+
+    @Autowired
+    private CachingProductServiceClient productServiceClient;
+
+    @Value("${order.product-cache.purge-token:}")
+    private String purgeToken;
+
+    @DeleteMapping("/products/{id}")
+    public ResponseEntity<Void> evictProduct(@PathVariable String id,
+                                             @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        productServiceClient.invalidate(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/products")
+    public ResponseEntity<Void> evictAllProducts(@RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        if (!authorized(token)) return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        productServiceClient.invalidateAll();
+        return ResponseEntity.noContent().build();
+    }
+
+    //an unset token refuses everyone rather than letting everyone in
+    private boolean authorized(String token) {
+        if (purgeToken == null || purgeToken.isEmpty() || token == null) return false;
+        return MessageDigest.isEqual(purgeToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.order.controllers;
 
 import com.example.order.Services.CartService;
+import com.example.order.Services.IdempotencyStore;
 import com.example.order.dtos.CartItemRequest;
 import com.example.order.models.CartItem;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,15 +16,20 @@ import java.util.List;
 public class CartController {
     @Autowired
     private CartService cartService;
-    //adding to cart
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+    //adding to cart, a retried add with the same Idempotency-Key does not add the quantity twice
     @PostMapping
     public ResponseEntity<String> addToCart(
             @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
             @RequestBody CartItemRequest request){
-        if (!cartService.addToCart(userId,request)){
-            return  ResponseEntity.badRequest().body("Product out of Stock or User not found or Product not found");
-        }
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        return idempotencyStore.execute("cart:" + userId, idempotencyKey, IdempotencyStore.fingerprint(request), () -> {
+            if (!cartService.addToCart(userId,request)){
+                return  ResponseEntity.badRequest().body("Product out of Stock or User not found or Product not found");
+            }
+            return ResponseEntity.status(HttpStatus.CREATED).<String>build();
+        });
     }
     //deleting form cart
     @DeleteMapping("/items/{productId}")
@@ -1,26 +1,68 @@
 package com.example.order.controllers;
 
+import com.example.order.Services.IdempotencyStore;
 import com.example.order.Services.OrderService;
+import com.example.order.dtos.OrderCursor;
 import com.example.order.dtos.OrderResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RequestHeader;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private OrderService orderService;
+    @Autowired
+    private IdempotencyStore idempotencyStore;
 
+    //a retry carrying the same Idempotency-Key gets the first response back instead of a second order.
+    //there is no body, the order is built from the cart, which the first attempt has already emptied
+    //by the time a retry comes, so the fingerprint is that of the empty request rather than the cart
     @PostMapping
     public ResponseEntity<OrderResponse> createOrder(
-            @RequestHeader("X-User-ID") String userId){
-        return orderService.createOrder(userId)
-                .map(orderResponse -> new ResponseEntity<>(orderResponse, HttpStatus.CREATED))
-                .orElseGet(()->ResponseEntity.badRequest().build());
+            @RequestHeader("X-User-ID") String userId,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey){
+        return idempotencyStore.execute("orders:" + userId, idempotencyKey, IdempotencyStore.fingerprint(null), () ->
+                orderService.createOrder(userId)
+                        .map(orderResponse -> new ResponseEntity<>(orderResponse, HttpStatus.CREATED))
+                        .orElseGet(()->ResponseEntity.badRequest().build()));
+    }
+
+    //newest first, the next page starts after the opaque cursor in X-Next-Cursor
+    @GetMapping
+    public ResponseEntity<List<OrderResponse>> getOrders(
+            @RequestHeader("X-User-ID") String userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int limit){
+        OrderCursor cursor;
+        try {
+            cursor = after == null ? null : OrderCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<OrderResponse> orders = orderService.getOrders(userId, cursor, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (orders.size() == pageSize) {
+            OrderResponse last = orders.getLast();
+            response.header(NEXT_CURSOR_HEADER, new OrderCursor(last.getCreateTime(), last.getId()).encode());
+        }
+        return response.body(orders);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<OrderResponse> getOrder(
+            @RequestHeader("X-User-ID") String userId,
+            @PathVariable Long id){
+        return orderService.getOrder(userId, id)
+                .map(ResponseEntity::ok)
+                .orElseGet(()->ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,11 @@
+package com.example.order.dtos;
+
+import java.math.BigDecimal;
+
+//one order line together with the order it belongs to, for loading the lines of a whole page at once
+public record OrderLineView(Long orderId, Long id, String productId, Integer quantity,
+                            BigDecimal price, BigDecimal subTotal) {
+    public OrderItemDTO toDto() {
+        return new OrderItemDTO(id, productId, quantity, price, subTotal);
+    }
+}
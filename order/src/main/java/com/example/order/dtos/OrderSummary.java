@@ -0,0 +1,10 @@
+package com.example.order.dtos;
+
+import com.example.order.models.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+//order header columns only, read straight into the DTO without loading the entity
+public record OrderSummary(Long id, BigDecimal totalAmount, OrderStatus status, LocalDateTime createTime) {
+}
@@ -0,0 +1,30 @@
+package com.example.order.events;
+
+import com.example.order.models.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+
+//delivers events to @EventListener beans of this instance, on the relay thread
+public class InProcessOrderEventPublisher implements OrderEventPublisher {
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ObjectMapper objectMapper;
+
+    public InProcessOrderEventPublisher(ApplicationEventPublisher applicationEventPublisher, ObjectMapper objectMapper) {
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(OutboxEvent event) {
+        if (!OrderCreatedEvent.TYPE.equals(event.getEventType())) {
+            throw new IllegalArgumentException("Unknown event type " + event.getEventType());
+        }
+        try {
+            OrderCreatedEvent orderCreated = objectMapper.readValue(event.getPayload(), OrderCreatedEvent.class);
+            applicationEventPublisher.publishEvent(orderCreated.withEventId(event.getId()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not read outbox event " + event.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.order.events;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+//eventId is the outbox row id, the same for every redelivery of one event
+public record OrderCreatedEvent(Long eventId, Long orderId, String userId, BigDecimal totalAmount,
+                                List<Line> items, LocalDateTime occurredAt) {
+    public static final String TYPE = "OrderCreated";
+
+    public record Line(String productId, Integer quantity, BigDecimal price) {
+    }
+
+    public OrderCreatedEvent withEventId(Long eventId) {
+        return new OrderCreatedEvent(eventId, orderId, userId, totalAmount, items, occurredAt);
+    }
+}
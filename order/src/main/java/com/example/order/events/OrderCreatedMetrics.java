@@ -0,0 +1,34 @@
+package com.example.order.events;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/*
+ * Counts created orders. The counter lives in this JVM and starts over on restart, so remembering
+ * events in the database would cost an insert per order without making it any more exact.
+ * Recent event ids are kept in memory instead, which catches the redelivery of a retried batch.
+ */
+@Component
+public class OrderCreatedMetrics {
+    private static final int RECENT_EVENTS = 10_000;
+
+    private final Counter ordersCreated;
+    private final Cache<Long, Boolean> recentEvents = Caffeine.newBuilder()
+            .maximumSize(RECENT_EVENTS)
+            .build();
+
+    public OrderCreatedMetrics(MeterRegistry meterRegistry) {
+        this.ordersCreated = Counter.builder("orders.created").register(meterRegistry);
+    }
+
+    @EventListener
+    public void onOrderCreated(OrderCreatedEvent event) {
+        if (recentEvents.asMap().putIfAbsent(event.eventId(), Boolean.TRUE) == null) {
+            ordersCreated.increment();
+        }
+    }
+}
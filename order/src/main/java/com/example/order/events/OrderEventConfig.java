@@ -0,0 +1,18 @@
+package com.example.order.events;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OrderEventConfig {
+    //a broker backed OrderEventPublisher takes over when order.outbox.publisher names it
+    @Bean
+    @ConditionalOnProperty(name = "order.outbox.publisher", havingValue = "in-process", matchIfMissing = true)
+    public OrderEventPublisher inProcessOrderEventPublisher(ApplicationEventPublisher applicationEventPublisher,
+                                                            ObjectMapper objectMapper) {
+        return new InProcessOrderEventPublisher(applicationEventPublisher, objectMapper);
+    }
+}
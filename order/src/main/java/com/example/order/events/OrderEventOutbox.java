@@ -0,0 +1,42 @@
+package com.example.order.events;
+
+import com.example.order.models.Order;
+import com.example.order.models.OutboxEvent;
+import com.example.order.repositories.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Component
+public class OrderEventOutbox {
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    //must join the transaction that saves the order, otherwise the event could outlive a rolled back order
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void orderCreated(Order order) {
+        OrderCreatedEvent event = new OrderCreatedEvent(
+                null,
+                order.getId(),
+                order.getUserId(),
+                order.getTotalAmount(),
+                order.getItems().stream()
+                        .map(item -> new OrderCreatedEvent.Line(item.getProductId(), item.getQuantity(), item.getPrice()))
+                        .toList(),
+                LocalDateTime.now()
+        );
+        try {
+            outboxEventRepository.save(new OutboxEvent(
+                    String.valueOf(order.getId()), OrderCreatedEvent.TYPE, objectMapper.writeValueAsString(event)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize event for order " + order.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.order.events;
+
+import com.example.order.models.OutboxEvent;
+
+//hands one outbox event to its subscribers, throwing leaves the event to be retried
+public interface OrderEventPublisher {
+    void publish(OutboxEvent event);
+}
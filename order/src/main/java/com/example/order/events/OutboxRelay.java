@@ -0,0 +1,78 @@
+package com.example.order.events;
+
+import com.example.order.models.OutboxEvent;
+import com.example.order.repositories.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ * Moves committed outbox rows to the publisher in id order, a batch per transaction. Rows are
+ * marked published in the same transaction that locked them, after the publisher accepted them,
+ * so a crash in between republishes the batch rather than losing it. A failing event stops the
+ * batch there and is retried on the next run together with everything behind it.
+ */
+@Component
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${order.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${order.outbox.retention-hours:24}")
+    private long retentionHours;
+
+    @Scheduled(fixedDelayString = "${order.outbox.relay-interval-ms:200}")
+    public void relay() {
+        //keep going while batches come back full, a backlog drains without waiting for the next tick
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    //returns how many events were published, fewer than the batch size means the outbox is drained or one failed
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.lockUnpublished(batchSize);
+            List<Long> published = new ArrayList<>(batch.size());
+            for (OutboxEvent event : batch) {
+                try {
+                    orderEventPublisher.publish(event);
+                } catch (RuntimeException e) {
+                    logger.warn("Could not publish outbox event {}: {}", event.getId(), e.getMessage());
+                    break;
+                }
+                published.add(event.getId());
+            }
+            if (!published.isEmpty()) {
+                outboxEventRepository.markPublished(published, LocalDateTime.now());
+            }
+            return published.size();
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    @Scheduled(fixedDelayString = "${order.outbox.purge-interval-ms:3600000}")
+    public void purgePublished() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofHours(retentionHours));
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository.deletePublishedBefore(cutoff));
+        if (deleted != null && deleted > 0) logger.info("Purged {} published outbox events", deleted);
+    }
+}
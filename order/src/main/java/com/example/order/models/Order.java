@@ -3,6 +3,7 @@ package com.example.order.models;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -12,11 +13,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_user_create_at", columnList = "user_id, create_at, id"))
 @Data
 @NoArgsConstructor
 public class Order {
+    //pooled sequence ids let Hibernate batch the inserts, identity columns disable batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     private String userId;
@@ -27,6 +31,7 @@ public class Order {
     private OrderStatus status = OrderStatus.PENDING;
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<OrderItem> items = new ArrayList<>();
 
     @CreationTimestamp
@@ -12,16 +12,19 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 @Data
 public class OrderItem {
+    //pooled sequence ids let Hibernate batch the inserts, identity columns disable batching
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
     private String productId;
 
     private Integer quantity;
     private BigDecimal price;
+    private BigDecimal subTotal;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id", nullable = false)
     private Order order;
 
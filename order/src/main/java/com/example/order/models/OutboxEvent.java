@@ -0,0 +1,39 @@
+package com.example.order.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+//an event written in the same transaction as the change it describes, published later by OutboxRelay
+@Entity
+@Table(name = "outbox_event")
+@Data
+@NoArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_seq")
+    @SequenceGenerator(name = "outbox_event_seq", sequenceName = "outbox_event_seq", allocationSize = 50)
+    private Long id;
+
+    private String aggregateId;
+
+    private String eventType;
+
+    @Column(columnDefinition = "text")
+    private String payload;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    //null until a relay has handed the event to the publisher
+    private LocalDateTime publishedAt;
+
+    public OutboxEvent(String aggregateId, String eventType, String payload) {
+        this.aggregateId = aggregateId;
+        this.eventType = eventType;
+        this.payload = payload;
+    }
+}
@@ -2,17 +2,41 @@ package com.example.order.repositories;
 
 import com.example.order.models.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem,Long> {
     CartItem findByUserIdAndProductId(String userId, String productId);
 
-    void deleteByUserIdAndProductId(String userId, String productId);
+    //insert or add to the existing line in one statement, relies on uk_cart_item_user_product
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            INSERT INTO cart_item (user_id, product_id, quantity, price, created_at, updated_at)
+            VALUES (:userId, :productId, :quantity, :price, LOCALTIMESTAMP, LOCALTIMESTAMP)
+            ON CONFLICT (user_id, product_id) DO UPDATE
+            SET quantity = cart_item.quantity + EXCLUDED.quantity,
+                price = EXCLUDED.price,
+                updated_at = EXCLUDED.updated_at
+            """, nativeQuery = true)
+    int upsertItem(@Param("userId") String userId,
+                   @Param("productId") String productId,
+                   @Param("quantity") Integer quantity,
+                   @Param("price") BigDecimal price);
+
+    //single DELETE statement, pending changes are flushed first and the persistence context cleared after
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CartItem c WHERE c.userId = :userId AND c.productId = :productId")
+    int deleteByUserIdAndProductId(@Param("userId") String userId, @Param("productId") String productId);
 
     List<CartItem> findByUserId(String userId);
 
-    void deleteByUserId(String userId);
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CartItem c WHERE c.userId = :userId")
+    int deleteByUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,18 @@
+package com.example.order.repositories;
+
+import com.example.order.models.CartItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+//where carts live until checkout, selected with order.cart.store (jpa or memory)
+public interface CartStore {
+    //adds to the quantity of an existing line and refreshes its price
+    void addItem(String userId, String productId, Integer quantity, BigDecimal price);
+
+    boolean removeItem(String userId, String productId);
+
+    List<CartItem> getItems(String userId);
+
+    void clear(String userId);
+}
@@ -0,0 +1,34 @@
+package com.example.order.repositories;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CartStoreConfig {
+    @Value("${order.cart.maximum-size:100000}")
+    private long maximumSize;
+
+    @Value("${order.cart.ttl-minutes:120}")
+    private long ttlMinutes;
+
+    @Bean
+    @ConditionalOnProperty(name = "order.cart.store", havingValue = "jpa", matchIfMissing = true)
+    public CartStore jpaCartStore(CartItemRepository cartItemRepository) {
+        return new JpaCartStore(cartItemRepository);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "order.cart.store", havingValue = "memory")
+    public CartStore inMemoryCartStore(MeterRegistry meterRegistry) {
+        InMemoryCartStore store = new InMemoryCartStore(maximumSize, Duration.ofMinutes(ttlMinutes), Ticker.systemTicker());
+        CaffeineCacheMetrics.monitor(meterRegistry, store.getCache(), "carts");
+        return store;
+    }
+}
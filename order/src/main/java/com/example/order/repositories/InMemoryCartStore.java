@@ -0,0 +1,93 @@
+package com.example.order.repositories;
+
+import com.example.order.models.CartItem;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Carts kept in the order instance's heap, with no database write until checkout turns them into an order.
+ * A cart untouched for the TTL is dropped, which is what happens to most carts anyway. Carts are
+ * lost on restart and are not shared between instances, so this needs sticky routing per user.
+ */
+public class InMemoryCartStore implements CartStore {
+    private final Cache<String, Map<String, CartItem>> carts;
+
+    public InMemoryCartStore(long maximumSize, Duration ttl, Ticker ticker) {
+        this.carts = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(ttl)
+                .ticker(ticker)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void addItem(String userId, String productId, Integer quantity, BigDecimal price) {
+        //every write swaps in a new map, readers never see a cart half updated
+        carts.asMap().compute(userId, (key, cart) -> {
+            Map<String, CartItem> updated = cart == null ? new LinkedHashMap<>() : new LinkedHashMap<>(cart);
+            LocalDateTime now = LocalDateTime.now();
+            CartItem existing = updated.get(productId);
+            CartItem cartItem = new CartItem();
+            cartItem.setUserId(userId);
+            cartItem.setProductId(productId);
+            cartItem.setQuantity(existing == null ? quantity : existing.getQuantity() + quantity);
+            cartItem.setPrice(price);
+            cartItem.setCreatedAt(existing == null ? now : existing.getCreatedAt());
+            cartItem.setUpdatedAt(now);
+            updated.put(productId, cartItem);
+            return Collections.unmodifiableMap(updated);
+        });
+    }
+
+    @Override
+    public boolean removeItem(String userId, String productId) {
+        boolean[] removed = new boolean[1];
+        carts.asMap().computeIfPresent(userId, (key, cart) -> {
+            if (!cart.containsKey(productId)) return cart;
+            removed[0] = true;
+            Map<String, CartItem> updated = new LinkedHashMap<>(cart);
+            updated.remove(productId);
+            return updated.isEmpty() ? null : Collections.unmodifiableMap(updated);
+        });
+        return removed[0];
+    }
+
+    @Override
+    public List<CartItem> getItems(String userId) {
+        Map<String, CartItem> cart = carts.getIfPresent(userId);
+        if (cart == null) return List.of();
+        //copies, so callers cannot change the stored lines
+        List<CartItem> items = new ArrayList<>(cart.size());
+        cart.values().forEach(item -> {
+            CartItem copy = new CartItem();
+            copy.setUserId(item.getUserId());
+            copy.setProductId(item.getProductId());
+            copy.setQuantity(item.getQuantity());
+            copy.setPrice(item.getPrice());
+            copy.setCreatedAt(item.getCreatedAt());
+            copy.setUpdatedAt(item.getUpdatedAt());
+            items.add(copy);
+        });
+        return items;
+    }
+
+    @Override
+    public void clear(String userId) {
+        carts.invalidate(userId);
+    }
+
+    public Cache<String, Map<String, CartItem>> getCache() {
+        return carts;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.order.repositories;
+
+import com.example.order.models.CartItem;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+//carts as cart_item rows, survives restarts and is shared by every order instance
+public class JpaCartStore implements CartStore {
+    private final CartItemRepository cartItemRepository;
+
+    public JpaCartStore(CartItemRepository cartItemRepository) {
+        this.cartItemRepository = cartItemRepository;
+    }
+
+    @Override
+    public void addItem(String userId, String productId, Integer quantity, BigDecimal price) {
+        cartItemRepository.upsertItem(userId, productId, quantity, price);
+    }
+
+    @Override
+    public boolean removeItem(String userId, String productId) {
+        return cartItemRepository.deleteByUserIdAndProductId(userId, productId) > 0;
+    }
+
+    @Override
+    public List<CartItem> getItems(String userId) {
+        return cartItemRepository.findByUserId(userId);
+    }
+
+    @Override
+    public void clear(String userId) {
+        cartItemRepository.deleteByUserId(userId);
+    }
+}
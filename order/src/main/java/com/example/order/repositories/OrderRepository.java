@@ -1,9 +1,52 @@
 package com.example.order.repositories;
 
+import com.example.order.dtos.OrderLineView;
+import com.example.order.dtos.OrderSummary;
 import com.example.order.models.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order,Long> {
+    //newest first, both history queries walk idx_orders_user_create_at in index order
+    @Query("""
+            SELECT new com.example.order.dtos.OrderSummary(o.id, o.totalAmount, o.status, o.createAt)
+            FROM orders o
+            WHERE o.userId = :userId
+            ORDER BY o.createAt DESC, o.id DESC
+            """)
+    List<OrderSummary> findOrderSummaries(@Param("userId") String userId, Limit limit);
+
+    //the "createAt <= :createAt" bound lets the index seek straight to the cursor
+    @Query("""
+            SELECT new com.example.order.dtos.OrderSummary(o.id, o.totalAmount, o.status, o.createAt)
+            FROM orders o
+            WHERE o.userId = :userId
+              AND o.createAt <= :createAt
+              AND (o.createAt < :createAt OR o.id < :id)
+            ORDER BY o.createAt DESC, o.id DESC
+            """)
+    List<OrderSummary> findOrderSummariesBefore(@Param("userId") String userId,
+                                                @Param("createAt") LocalDateTime createAt,
+                                                @Param("id") Long id,
+                                                Limit limit);
+
+    @Query("""
+            SELECT new com.example.order.dtos.OrderLineView(i.order.id, i.id, i.productId, i.quantity, i.price, i.subTotal)
+            FROM OrderItem i
+            WHERE i.order.id IN :orderIds
+            ORDER BY i.id
+            """)
+    List<OrderLineView> findOrderLines(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT o FROM orders o LEFT JOIN FETCH o.items WHERE o.id = :id AND o.userId = :userId")
+    Optional<Order> findWithItems(@Param("id") Long id, @Param("userId") String userId);
 }
@@ -0,0 +1,28 @@
+-- runs after Hibernate has created/updated the tables (spring.jpa.defer-datasource-initialization)
+-- moves the id sequences past ids handed out while orders still used identity columns
+SELECT setval('orders_seq', (SELECT MAX(id) FROM orders) + 50)
+WHERE (SELECT MAX(id) FROM orders) >= (SELECT last_value FROM orders_seq);
+
+SELECT setval('order_item_seq', (SELECT MAX(id) FROM order_item) + 50)
+WHERE (SELECT MAX(id) FROM order_item) >= (SELECT last_value FROM order_item_seq);
+
+-- lines stored before sub_total existed had it computed at read time, fill it in once
+UPDATE order_item SET sub_total = price * quantity WHERE sub_total IS NULL;
+
+-- folds duplicate cart lines left by the old read-then-save addToCart, then enforces one line per product
+UPDATE cart_item c SET quantity = d.total
+FROM (SELECT MIN(id) AS keep_id, SUM(quantity) AS total
+      FROM cart_item GROUP BY user_id, product_id HAVING COUNT(*) > 1) d
+WHERE c.id = d.keep_id;
+
+DELETE FROM cart_item c USING cart_item k
+WHERE c.user_id = k.user_id AND c.product_id = k.product_id AND c.id > k.id;
+
+-- declared only here, the rows above have to be folded first; the leading user_id also serves findByUserId
+CREATE UNIQUE INDEX IF NOT EXISTS uk_cart_item_user_product ON cart_item (user_id, product_id);
+
+-- the relay only ever looks for unpublished events, keep that lookup small as the outbox grows
+CREATE INDEX IF NOT EXISTS idx_outbox_event_unpublished ON outbox_event (id) WHERE published_at IS NULL;
+
+-- order history walks a user's orders newest first, see OrderRepository
+CREATE INDEX IF NOT EXISTS idx_orders_user_create_at ON orders (user_id, create_at, id);
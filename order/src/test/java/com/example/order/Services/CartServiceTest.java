@@ -1,42 +1,70 @@
 package com.example.order.Services;
 
 import com.example.order.clients.ProductServiceClient;
-import com.example.order.clients.UserServiceClient;
+import com.example.order.clients.UserExistenceChecker;
 import com.example.order.dtos.CartItemRequest;
 import com.example.order.dtos.ProductResponse;
-import com.example.order.dtos.UserResponse;
 import com.example.order.models.CartItem;
-import com.example.order.repositories.CartItemRepository;
+import com.example.order.repositories.CartStore;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CartServiceTest {
 
     @Mock
-    private CartItemRepository cartItemRepository;
+    private CartStore cartStore;
 
     @Mock
     private ProductServiceClient productServiceClient;
 
     @Mock
-    private UserServiceClient userServiceClient;
+    private UserExistenceChecker userExistenceChecker;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private CartService cartService;
 
+    @BeforeEach
+    void setUp() {
+        //run the transactional part inline
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        //run the remote checks on the calling thread
+        ReflectionTestUtils.setField(cartService, "remoteCallExecutor", (Executor) Runnable::run);
+    }
+
     @DisplayName("Add to Cart - Success (New Cart Item)")
     @Test
     void test_When_Add_To_Cart_New_Item_Success() {
@@ -49,15 +77,14 @@ class CartServiceTest {
         when(productServiceClient.getProductDetails(anyString()))
                 .thenReturn(getMockProductResponse());
 
-        when(userServiceClient.getUserDetails(anyString()))
-                .thenReturn(getMockUserResponse());
-
-        when(cartItemRepository.findByUserIdAndProductId(anyString(), anyString()))
-                .thenReturn(null);
+        when(userExistenceChecker.exists(anyString()))
+                .thenReturn(true);
 
         boolean result = cartService.addToCart("user1", request);
 
-        verify(cartItemRepository, times(1)).save(any(CartItem.class));
+        ArgumentCaptor<BigDecimal> price = ArgumentCaptor.forClass(BigDecimal.class);
+        verify(cartStore, times(1)).addItem(eq("user1"), eq("P1"), eq(2), price.capture());
+        assertEquals(BigDecimal.valueOf(1000), price.getValue());
         assertTrue(result);
     }
 
@@ -70,25 +97,16 @@ class CartServiceTest {
         request.setQuantity(2);
 
 
-        CartItem existingItem = new CartItem();
-        existingItem.setUserId("user1");
-        existingItem.setProductId("P1");
-        existingItem.setQuantity(3);
-        existingItem.setPrice(BigDecimal.valueOf(1000));
-
         when(productServiceClient.getProductDetails(anyString()))
                 .thenReturn(getMockProductResponse());
 
-        when(userServiceClient.getUserDetails(anyString()))
-                .thenReturn(getMockUserResponse());
-
-        when(cartItemRepository.findByUserIdAndProductId(anyString(), anyString()))
-                .thenReturn(existingItem);
+        when(userExistenceChecker.exists(anyString()))
+                .thenReturn(true);
 
+        //the store adds to the existing line, the service makes the same single call
         boolean result = cartService.addToCart("user1", request);
 
-        verify(cartItemRepository, times(1)).save(existingItem);
-        assertEquals(5, existingItem.getQuantity());
+        verify(cartStore, times(1)).addItem("user1", "P1", 2, BigDecimal.valueOf(1000));
         assertTrue(result);
     }
 
@@ -108,7 +126,7 @@ class CartServiceTest {
 
         boolean result = cartService.addToCart("user1", request);
 
-        verify(cartItemRepository, never()).save(any());
+        verify(cartStore, never()).addItem(anyString(), anyString(), anyInt(), any());
         assertFalse(result);
     }
 
@@ -124,29 +142,73 @@ class CartServiceTest {
         when(productServiceClient.getProductDetails(anyString()))
                 .thenReturn(getMockProductResponse());
 
-        when(userServiceClient.getUserDetails(anyString()))
-                .thenReturn(null);
+        when(userExistenceChecker.exists(anyString()))
+                .thenReturn(false);
 
         boolean result = cartService.addToCart("user1", request);
 
-        verify(cartItemRepository, never()).save(any());
+        verify(cartStore, never()).addItem(anyString(), anyString(), anyInt(), any());
         assertFalse(result);
     }
 
+    @DisplayName("Add to Cart - Failure (Product Service Error)")
+    @Test
+    void test_When_Product_Service_Fails_then_Propagate() {
+
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId("P1");
+        request.setQuantity(2);
+
+        when(productServiceClient.getProductDetails(anyString()))
+                .thenThrow(new IllegalStateException("product service down"));
+
+        assertThrows(IllegalStateException.class, () -> cartService.addToCart("user1", request));
+        verify(cartStore, never()).addItem(anyString(), anyString(), anyInt(), any());
+    }
+
+    @DisplayName("Add to Cart - Product Rejected, Running User Check Interrupted")
+    @Test
+    void test_When_Product_Rejected_then_User_Check_Interrupted() throws Exception {
+
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId("P1");
+        request.setQuantity(2);
+
+        CountDownLatch userCheckStarted = new CountDownLatch(1);
+        CountDownLatch userCheckInterrupted = new CountDownLatch(1);
+        when(productServiceClient.getProductDetails("P1")).thenAnswer(invocation -> {
+            userCheckStarted.await();
+            return null;
+        });
+        when(userExistenceChecker.exists("user1")).thenAnswer(invocation -> {
+            userCheckStarted.countDown();
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                userCheckInterrupted.countDown();
+            }
+            return true;
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            ReflectionTestUtils.setField(cartService, "remoteCallExecutor", executor);
+
+            assertFalse(cartService.addToCart("user1", request));
+            assertTrue(userCheckInterrupted.await(5, TimeUnit.SECONDS));
+        }
+        verify(cartStore, never()).addItem(anyString(), anyString(), anyInt(), any());
+    }
+
     @DisplayName("Delete Item From Cart - Success")
     @Test
     void test_When_Delete_Item_Success() {
 
-        CartItem cartItem = new CartItem();
-        cartItem.setUserId("user1");
-        cartItem.setProductId("P1");
-
-        when(cartItemRepository.findByUserIdAndProductId(anyString(), anyString()))
-                .thenReturn(cartItem);
+        when(cartStore.removeItem("user1", "P1"))
+                .thenReturn(true);
 
         boolean result = cartService.deleteItemFromCart("user1", "P1");
 
-        verify(cartItemRepository, times(1)).delete(cartItem);
+        verify(cartStore, times(1)).removeItem("user1", "P1");
         assertTrue(result);
     }
 
@@ -154,12 +216,11 @@ class CartServiceTest {
     @Test
     void test_When_Delete_Item_Not_Found_then_Fail() {
 
-        when(cartItemRepository.findByUserIdAndProductId(anyString(), anyString()))
-                .thenReturn(null);
+        when(cartStore.removeItem(anyString(), anyString()))
+                .thenReturn(false);
 
         boolean result = cartService.deleteItemFromCart("user1", "P1");
 
-        verify(cartItemRepository, never()).delete(any());
         assertFalse(result);
     }
 
@@ -167,12 +228,12 @@ class CartServiceTest {
     @Test
     void test_When_Get_Cart_Success() {
 
-        when(cartItemRepository.findByUserId(anyString()))
+        when(cartStore.getItems(anyString()))
                 .thenReturn(List.of(new CartItem(), new CartItem()));
 
         List<CartItem> cartItems = cartService.getCart("user1");
 
-        verify(cartItemRepository, times(1)).findByUserId(anyString());
+        verify(cartStore, times(1)).getItems(anyString());
         assertEquals(2, cartItems.size());
     }
 
@@ -180,11 +241,9 @@ class CartServiceTest {
     @Test
     void test_When_Clear_Cart_Success() {
 
-        doNothing().when(cartItemRepository).deleteByUserId(anyString());
-
         cartService.clearCart("user1");
 
-        verify(cartItemRepository, times(1)).deleteByUserId(anyString());
+        verify(cartStore, times(1)).clear("user1");
     }
 
     // 🔹 Mock helpers
@@ -199,12 +258,4 @@ class CartServiceTest {
         return response;
     }
 
-
-    private UserResponse getMockUserResponse() {
-        UserResponse response = new UserResponse();
-        response.setId("user1");
-        response.setEmail("user@test.com");
-        return response;
-    }
-
 }
@@ -0,0 +1,187 @@
+package com.example.order.Services;
+
+import com.example.order.dtos.CartItemRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore idempotencyStore = new IdempotencyStore(100, Duration.ofMinutes(5));
+
+    @DisplayName("Same Key - Executed Once, Replayed After")
+    @Test
+    void test_When_Same_Key_Then_Response_Replayed() {
+
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<String> first = idempotencyStore.execute("orders:user1", "key1", "", () ->
+                ResponseEntity.status(HttpStatus.CREATED).body("order-" + calls.incrementAndGet()));
+        ResponseEntity<String> second = idempotencyStore.execute("orders:user1", "key1", "", () ->
+                ResponseEntity.status(HttpStatus.CREATED).body("order-" + calls.incrementAndGet()));
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, second.getStatusCode());
+        assertEquals("order-1", second.getBody());
+        assertNull(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+        assertEquals("true", second.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @DisplayName("Same Key - Different Request Rejected")
+    @Test
+    void test_When_Key_Reused_With_Other_Request_Then_422() {
+
+        idempotencyStore.execute("cart:user1", "key1", "P1x2", () -> ResponseEntity.ok("added"));
+
+        ResponseEntity<String> response = idempotencyStore.execute("cart:user1", "key1", "P2x1",
+                () -> ResponseEntity.ok("added"));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+    }
+
+    @DisplayName("Same Key - Other User Not Affected")
+    @Test
+    void test_When_Same_Key_Other_Scope_Then_Executed() {
+
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyStore.execute("orders:user1", "key1", "", () -> ResponseEntity.ok(calls.incrementAndGet()));
+        idempotencyStore.execute("orders:user2", "key1", "", () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        assertEquals(2, calls.get());
+    }
+
+    @DisplayName("No Key - Executed Every Time")
+    @Test
+    void test_When_No_Key_Then_Always_Executed() {
+
+        AtomicInteger calls = new AtomicInteger();
+
+        idempotencyStore.execute("orders:user1", null, "", () -> ResponseEntity.ok(calls.incrementAndGet()));
+        idempotencyStore.execute("orders:user1", null, "", () -> ResponseEntity.ok(calls.incrementAndGet()));
+
+        assertEquals(2, calls.get());
+    }
+
+    @DisplayName("Failure - Not Remembered")
+    @Test
+    void test_When_Action_Fails_Then_Retry_Executes() {
+
+        assertThrows(IllegalStateException.class, () -> idempotencyStore.execute("orders:user1", "key1", "",
+                () -> {
+                    throw new IllegalStateException("database down");
+                }));
+
+        ResponseEntity<String> retry = idempotencyStore.execute("orders:user1", "key1", "",
+                () -> ResponseEntity.ok("created"));
+
+        assertEquals("created", retry.getBody());
+        assertNull(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER));
+    }
+
+    @DisplayName("Concurrent Duplicates - Collapsed Into One Execution")
+    @Test
+    void test_When_Duplicate_Arrives_In_Flight_Then_Waits_And_Replays() throws Exception {
+
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<Integer>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyStore.execute("orders:user1", "key1", "", () -> {
+                    started.countDown();
+                    awaitQuietly(release);
+                    return ResponseEntity.ok(calls.incrementAndGet());
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<ResponseEntity<Integer>> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyStore.execute("orders:user1", "key1", "", () -> ResponseEntity.ok(calls.incrementAndGet())));
+        assertFalse(duplicate.isDone());
+
+        release.countDown();
+
+        assertEquals(1, first.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, duplicate.get(5, TimeUnit.SECONDS).getBody());
+        assertEquals(1, calls.get());
+    }
+
+    @DisplayName("Concurrent Duplicates - Error In The First Does Not Leave The Duplicate Waiting")
+    @Test
+    void test_When_First_Throws_Error_Then_Duplicate_Released() throws Exception {
+
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<ResponseEntity<String>> first = CompletableFuture.supplyAsync(() ->
+                idempotencyStore.execute("orders:user1", "key1", "", () -> {
+                    started.countDown();
+                    awaitQuietly(release);
+                    throw new OutOfMemoryError("simulated");
+                }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<ResponseEntity<String>> duplicate = CompletableFuture.supplyAsync(() ->
+                idempotencyStore.execute("orders:user1", "key1", "", () -> ResponseEntity.ok("created")));
+        release.countDown();
+
+        ExecutionException firstFailure = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(OutOfMemoryError.class, firstFailure.getCause());
+        //the duplicate either replayed the error or, arriving after it, ran on its own
+        try {
+            assertEquals("created", duplicate.get(5, TimeUnit.SECONDS).getBody());
+        } catch (ExecutionException e) {
+            assertInstanceOf(OutOfMemoryError.class, e.getCause());
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @DisplayName("Fingerprint - Equal Requests Match, Different Ones Do Not")
+    @Test
+    void test_When_Requests_Equal_Then_Same_Fingerprint() {
+
+        assertEquals(IdempotencyStore.fingerprint(cartItem("P1", 2)), IdempotencyStore.fingerprint(cartItem("P1", 2)));
+        assertNotEquals(IdempotencyStore.fingerprint(cartItem("P1", 2)), IdempotencyStore.fingerprint(cartItem("P1", 3)));
+        assertEquals(64, IdempotencyStore.fingerprint(null).length());
+    }
+
+    @DisplayName("Fingerprint - Map Key Order Does Not Matter")
+    @Test
+    void test_When_Map_Keys_Reordered_Then_Same_Fingerprint() {
+
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("productId", "P1");
+        first.put("quantity", 2);
+        Map<String, Object> second = new LinkedHashMap<>();
+        second.put("quantity", 2);
+        second.put("productId", "P1");
+
+        assertEquals(IdempotencyStore.fingerprint(first), IdempotencyStore.fingerprint(second));
+    }
+
+    private static CartItemRequest cartItem(String productId, int quantity) {
+        CartItemRequest request = new CartItemRequest();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
@@ -1,26 +1,42 @@
 package com.example.order.Services;
 
+import com.example.order.clients.ProductServiceClient;
+import com.example.order.dtos.OrderCursor;
+import com.example.order.dtos.OrderLineView;
 import com.example.order.dtos.OrderResponse;
+import com.example.order.dtos.OrderSummary;
+import com.example.order.events.OrderEventOutbox;
 import com.example.order.models.CartItem;
 import com.example.order.models.Order;
 import com.example.order.models.OrderStatus;
 import com.example.order.repositories.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.ResourceAccessException;
 
 import java.math.BigDecimal;
-import java.time.Instant;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,9 +48,27 @@ class OrderServiceTest {
     @Mock
     private OrderRepository orderRepository;
 
+    @Mock
+    private ProductServiceClient productServiceClient;
+
+    @Mock
+    private OrderEventOutbox orderEventOutbox;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private OrderService orderService;
 
+    @BeforeEach
+    void setUp() {
+        //run the transactional part inline
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(null);
+        });
+    }
+
     @DisplayName("Create Order - Success Scenario")
     @Test
     void test_When_Create_Order_Success() {
@@ -57,11 +91,14 @@ class OrderServiceTest {
         when(cartService.getCart(anyString()))
                 .thenReturn(cartItems);
 
+        when(productServiceClient.reserveStock(anyList()))
+                .thenReturn(ResponseEntity.noContent().build());
+
         when(orderRepository.save(any(Order.class)))
                 .thenAnswer(invocation -> {
                     Order order = invocation.getArgument(0);
                     order.setId(1L);
-                    order.setCreateAt(LocalDateTime.from(Instant.now()));
+                    order.setCreateAt(LocalDateTime.now());
                     return order;
                 });
 
@@ -69,13 +106,124 @@ class OrderServiceTest {
                 orderService.createOrder("user123");
 
         verify(cartService).getCart(anyString());
+        verify(productServiceClient).reserveStock(anyList());
         verify(orderRepository).save(any(Order.class));
+        verify(orderEventOutbox).orderCreated(any(Order.class));
         verify(cartService).clearCart(anyString());
 
         assertTrue(response.isPresent());
         assertEquals(OrderStatus.CONFIRMED, response.get().getStatus());
-        assertEquals(new BigDecimal("300"), response.get().getTotalAmount());
+        assertEquals(new BigDecimal("400"), response.get().getTotalAmount());
+        assertEquals(new BigDecimal("200"), response.get().getItems().get(0).getSubTotal());
+        assertEquals(new BigDecimal("200"), response.get().getItems().get(1).getSubTotal());
+
+    }
+
+    @DisplayName("Create Order - Insufficient Stock Scenario")
+    @Test
+    void test_When_Stock_Cannot_Be_Reserved() {
+
+        CartItem item = new CartItem();
+        item.setProductId("P1");
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("100"));
+
+        when(cartService.getCart(anyString()))
+                .thenReturn(List.of(item));
+
+        when(productServiceClient.reserveStock(anyList()))
+                .thenReturn(ResponseEntity.status(HttpStatus.CONFLICT).build());
+
+        Optional<OrderResponse> response =
+                orderService.createOrder("user123");
+
+        verify(orderRepository, never()).save(any());
+        verify(orderEventOutbox, never()).orderCreated(any());
+        verify(cartService, never()).clearCart(anyString());
+        assertTrue(response.isEmpty());
+    }
+
+    @DisplayName("Create Order - Save Fails, Stock Released")
+    @Test
+    void test_When_Save_Fails_Then_Release_Stock() {
+
+        CartItem item = new CartItem();
+        item.setProductId("P1");
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("100"));
+
+        when(cartService.getCart(anyString()))
+                .thenReturn(List.of(item));
+
+        when(productServiceClient.reserveStock(anyList()))
+                .thenReturn(ResponseEntity.noContent().build());
+
+        when(orderRepository.save(any(Order.class)))
+                .thenThrow(new IllegalStateException("database down"));
+
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder("user123"));
+
+        verify(productServiceClient).releaseStock(anyList());
+        verify(orderEventOutbox, never()).orderCreated(any());
+        verify(cartService, never()).clearCart(anyString());
+    }
+
+    @DisplayName("Create Order - Outbox Write Fails, Stock Released")
+    @Test
+    void test_When_Outbox_Write_Fails_Then_Release_Stock() {
+
+        CartItem item = new CartItem();
+        item.setProductId("P1");
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("100"));
+
+        when(cartService.getCart(anyString()))
+                .thenReturn(List.of(item));
+
+        when(productServiceClient.reserveStock(anyList()))
+                .thenReturn(ResponseEntity.noContent().build());
 
+        when(orderRepository.save(any(Order.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        doThrow(new IllegalStateException("database down"))
+                .when(orderEventOutbox).orderCreated(any(Order.class));
+
+        assertThrows(IllegalStateException.class, () -> orderService.createOrder("user123"));
+
+        verify(productServiceClient).releaseStock(anyList());
+        verify(cartService, never()).clearCart(anyString());
+    }
+
+    @DisplayName("Create Order - Reserve Timed Out, Stock Released")
+    @Test
+    void test_When_Reserve_Times_Out_Then_Release_Stock() {
+
+        when(cartService.getCart(anyString()))
+                .thenReturn(List.of(getMockCartItem()));
+
+        when(productServiceClient.reserveStock(anyList()))
+                .thenThrow(new ResourceAccessException("Read timed out", new SocketTimeoutException("Read timed out")));
+
+        assertThrows(ResourceAccessException.class, () -> orderService.createOrder("user123"));
+
+        verify(productServiceClient).releaseStock(anyList());
+        verify(orderRepository, never()).save(any());
+    }
+
+    @DisplayName("Create Order - Product Service Unreachable, Nothing Released")
+    @Test
+    void test_When_Reserve_Connection_Refused_Then_Nothing_Released() {
+
+        when(cartService.getCart(anyString()))
+                .thenReturn(List.of(getMockCartItem()));
+
+        when(productServiceClient.reserveStock(anyList()))
+                .thenThrow(new ResourceAccessException("Connection refused", new ConnectException("Connection refused")));
+
+        assertThrows(ResourceAccessException.class, () -> orderService.createOrder("user123"));
+
+        verify(productServiceClient, never()).releaseStock(anyList());
     }
 
     @DisplayName("Create Order - Empty Cart Scenario")
@@ -94,4 +242,65 @@ class OrderServiceTest {
 
         assertTrue(response.isEmpty());
     }
+
+    @DisplayName("Get Orders - Lines Loaded For The Whole Page")
+    @Test
+    void test_When_Get_Orders_Then_Lines_Grouped_By_Order() {
+
+        LocalDateTime now = LocalDateTime.now();
+        when(orderRepository.findOrderSummaries(eq("user123"), argThat(limit -> limit.max() == 2)))
+                .thenReturn(List.of(
+                        new OrderSummary(2L, new BigDecimal("100"), OrderStatus.CONFIRMED, now),
+                        new OrderSummary(1L, new BigDecimal("300"), OrderStatus.CONFIRMED, now.minusDays(1))));
+        when(orderRepository.findOrderLines(List.of(2L, 1L)))
+                .thenReturn(List.of(
+                        new OrderLineView(1L, 10L, "P1", 1, new BigDecimal("100"), new BigDecimal("100")),
+                        new OrderLineView(1L, 11L, "P2", 1, new BigDecimal("200"), new BigDecimal("200")),
+                        new OrderLineView(2L, 12L, "P1", 1, new BigDecimal("100"), new BigDecimal("100"))));
+
+        List<OrderResponse> orders = orderService.getOrders("user123", null, 2);
+
+        verify(orderRepository, times(1)).findOrderLines(anyList());
+        verify(orderRepository, never()).findById(any());
+        assertEquals(2, orders.size());
+        assertEquals(2L, orders.get(0).getId());
+        assertEquals(1, orders.get(0).getItems().size());
+        assertEquals(2, orders.get(1).getItems().size());
+        assertEquals("P2", orders.get(1).getItems().get(1).getProductId());
+    }
+
+    @DisplayName("Get Orders - Next Page Continues After Cursor")
+    @Test
+    void test_When_Get_Orders_With_Cursor_Then_Keyset_Query() {
+
+        LocalDateTime createTime = LocalDateTime.of(2025, 1, 1, 10, 0);
+        OrderCursor cursor = OrderCursor.decode(new OrderCursor(createTime, 7L).encode());
+
+        when(orderRepository.findOrderSummariesBefore(eq("user123"), eq(createTime), eq(7L), any(Limit.class)))
+                .thenReturn(List.of());
+
+        List<OrderResponse> orders = orderService.getOrders("user123", cursor, 20);
+
+        verify(orderRepository, never()).findOrderSummaries(anyString(), any());
+        verify(orderRepository, never()).findOrderLines(anyList());
+        assertTrue(orders.isEmpty());
+    }
+
+    @DisplayName("Get Order - Not Found For Other User")
+    @Test
+    void test_When_Get_Order_Of_Other_User_Then_Empty() {
+
+        when(orderRepository.findWithItems(1L, "user123"))
+                .thenReturn(Optional.empty());
+
+        assertTrue(orderService.getOrder("user123", 1L).isEmpty());
+    }
+
+    private CartItem getMockCartItem() {
+        CartItem item = new CartItem();
+        item.setProductId("P1");
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("100"));
+        return item;
+    }
 }
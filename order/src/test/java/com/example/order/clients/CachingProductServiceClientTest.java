@@ -0,0 +1,129 @@
+package com.example.order.clients;
+
+import com.example.order.dtos.ProductResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachingProductServiceClientTest {
+
+    @Mock
+    private ProductServiceClient delegate;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @DisplayName("Repeated Lookup - Served From Cache")
+    @Test
+    void test_When_Product_Cached_Then_Single_Remote_Call() {
+
+        when(delegate.getProductDetails(anyString()))
+                .thenReturn(getMockProductResponse());
+
+        CachingProductServiceClient client = newClient();
+        client.getProductDetails("1");
+        ProductResponse response = client.getProductDetails("1");
+
+        verify(delegate, times(1)).getProductDetails("1");
+        assertEquals(20, response.getStockQuantity());
+    }
+
+    @DisplayName("Miss - One Remote Call")
+    @Test
+    void test_When_Cache_Miss_Then_Single_Remote_Call() {
+
+        when(delegate.getProductDetails(anyString()))
+                .thenReturn(getMockProductResponse());
+
+        newClient().getProductDetails("1");
+
+        verify(delegate, times(1)).getProductDetails("1");
+    }
+
+    @DisplayName("Read After Refresh Interval - Reloaded In The Background")
+    @Test
+    void test_When_Read_After_Refresh_Interval_Then_Refreshed() {
+
+        when(delegate.getProductDetails(anyString()))
+                .thenReturn(getMockProductResponse());
+
+        CachingProductServiceClient client = newClient();
+        client.getProductDetails("1");
+        advance(Duration.ofMillis(1500));
+        client.getProductDetails("1");
+
+        //the direct executor runs the refresh inline
+        verify(delegate, times(2)).getProductDetails("1");
+    }
+
+    @DisplayName("Expired - Reloaded Once")
+    @Test
+    void test_When_Stock_Stale_Then_Revalidate() {
+
+        when(delegate.getProductDetails(anyString()))
+                .thenReturn(getMockProductResponse());
+
+        CachingProductServiceClient client = newClient();
+        client.getProductDetails("1");
+        advance(Duration.ofSeconds(3));
+        client.getProductDetails("1");
+
+        verify(delegate, times(2)).getProductDetails("1");
+    }
+
+    @DisplayName("Invalidate - Next Lookup Goes Remote")
+    @Test
+    void test_When_Invalidated_Then_Reload() {
+
+        when(delegate.getProductDetails(anyString()))
+                .thenReturn(getMockProductResponse());
+
+        CachingProductServiceClient client = newClient();
+        client.getProductDetails("1");
+        client.invalidate("1");
+        client.getProductDetails("1");
+
+        verify(delegate, times(2)).getProductDetails("1");
+    }
+
+    @DisplayName("Product Not Found - Not Cached")
+    @Test
+    void test_When_Product_Not_Found_Then_Not_Cached() {
+
+        when(delegate.getProductDetails(anyString()))
+                .thenReturn(null);
+
+        CachingProductServiceClient client = newClient();
+        assertNull(client.getProductDetails("1"));
+        assertNull(client.getProductDetails("1"));
+
+        verify(delegate, times(2)).getProductDetails("1");
+    }
+
+    private CachingProductServiceClient newClient() {
+        return new CachingProductServiceClient(delegate, Runnable::run, 100,
+                Duration.ofSeconds(2), Duration.ofSeconds(1), nanos::get);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private ProductResponse getMockProductResponse() {
+        ProductResponse response = new ProductResponse();
+        response.setId(1L);
+        response.setName("iPhone");
+        response.setStockQuantity(20);
+        response.setActive(true);
+        return response;
+    }
+}
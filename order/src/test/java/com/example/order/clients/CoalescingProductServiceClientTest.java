@@ -0,0 +1,132 @@
+package com.example.order.clients;
+
+import com.example.order.dtos.ProductResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoalescingProductServiceClientTest {
+
+    @Mock
+    private ProductServiceClient delegate;
+
+    @DisplayName("Concurrent Lookups - Merged Into One Batch Call")
+    @Test
+    void test_When_Concurrent_Lookups_Then_Single_Batch_Call() throws Exception {
+
+        when(delegate.getProductsDetails(anyList()))
+                .thenReturn(List.of(getMockProductResponse(1L), getMockProductResponse(2L)));
+
+        try (CoalescingProductServiceClient client =
+                     new CoalescingProductServiceClient(delegate, Runnable::run, 200, 100);
+             ExecutorService callers = Executors.newFixedThreadPool(3)) {
+
+            Future<ProductResponse> first = callers.submit(() -> client.getProductDetails("1"));
+            Future<ProductResponse> second = callers.submit(() -> client.getProductDetails("2"));
+            Future<ProductResponse> duplicate = callers.submit(() -> client.getProductDetails("1"));
+
+            assertEquals(1L, first.get(5, TimeUnit.SECONDS).getId());
+            assertEquals(2L, second.get(5, TimeUnit.SECONDS).getId());
+            assertEquals(1L, duplicate.get(5, TimeUnit.SECONDS).getId());
+        }
+
+        verify(delegate, times(1)).getProductsDetails(anyList());
+        verify(delegate, never()).getProductDetails(anyString());
+    }
+
+    @DisplayName("Waiting Caller Interrupted - Leaves The Wait")
+    @Test
+    void test_When_Caller_Interrupted_Then_Wait_Ends() throws Exception {
+
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        AtomicBoolean interruptFlagKept = new AtomicBoolean();
+
+        try (CoalescingProductServiceClient client =
+                     new CoalescingProductServiceClient(delegate, Runnable::run, 10_000, 100)) {
+            Thread caller = Thread.ofVirtual().start(() -> {
+                try {
+                    client.getProductDetails("1");
+                } catch (RuntimeException e) {
+                    failure.set(e);
+                    interruptFlagKept.set(Thread.currentThread().isInterrupted());
+                }
+            });
+            caller.interrupt();
+            caller.join(TimeUnit.SECONDS.toMillis(5));
+
+            assertFalse(caller.isAlive());
+        }
+
+        assertInstanceOf(IllegalStateException.class, failure.get());
+        assertTrue(interruptFlagKept.get());
+    }
+
+    @DisplayName("Full Batch - Dispatched Without Waiting For The Window")
+    @Test
+    void test_When_Batch_Is_Full_Then_Dispatch_Immediately() throws Exception {
+
+        when(delegate.getProductsDetails(anyList()))
+                .thenReturn(List.of(getMockProductResponse(1L)));
+
+        try (CoalescingProductServiceClient client =
+                     new CoalescingProductServiceClient(delegate, Runnable::run, 60_000, 2);
+             ExecutorService callers = Executors.newFixedThreadPool(2)) {
+
+            Future<ProductResponse> found = callers.submit(() -> client.getProductDetails("1"));
+            Future<ProductResponse> missing = callers.submit(() -> client.getProductDetails("2"));
+
+            assertEquals(1L, found.get(5, TimeUnit.SECONDS).getId());
+            assertNull(missing.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @DisplayName("Batch Call Fails - Every Waiter Sees The Error")
+    @Test
+    void test_When_Batch_Call_Fails_Then_Propagate() {
+
+        when(delegate.getProductsDetails(anyList()))
+                .thenThrow(new IllegalStateException("product service down"));
+
+        try (CoalescingProductServiceClient client =
+                     new CoalescingProductServiceClient(delegate, Runnable::run, 1, 100)) {
+            assertThrows(IllegalStateException.class, () -> client.getProductDetails("1"));
+        }
+    }
+
+    @DisplayName("Non Numeric Id - Bypasses The Batch")
+    @Test
+    void test_When_Id_Not_Numeric_Then_Single_Lookup() {
+
+        try (CoalescingProductServiceClient client =
+                     new CoalescingProductServiceClient(delegate, Runnable::run, 1, 100)) {
+            client.getProductDetails("abc");
+        }
+
+        verify(delegate, times(1)).getProductDetails("abc");
+        verify(delegate, never()).getProductsDetails(anyList());
+    }
+
+    private ProductResponse getMockProductResponse(Long id) {
+        ProductResponse response = new ProductResponse();
+        response.setId(id);
+        response.setName("iPhone");
+        response.setStockQuantity(20);
+        response.setActive(true);
+        return response;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.order.clients;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpTransportConfigTest {
+
+    @DisplayName("Apache Backend - Pooled With Metrics")
+    @Test
+    void test_When_Apache_Backend_Then_Pool_Metrics_Registered() throws Exception {
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("order.http.product.max-connections", "20")
+                .withProperty("order.http.product.read-timeout-ms", "750");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        HttpTransportSettings settings = HttpTransportSettings.from(environment, "product");
+        ClientHttpRequestFactory requestFactory = HttpTransportConfig.requestFactory("product", settings, meterRegistry);
+
+        assertEquals(HttpTransportSettings.Backend.APACHE, settings.backend());
+        assertEquals(750, settings.readTimeout().toMillis());
+        assertInstanceOf(HttpComponentsClientHttpRequestFactory.class, requestFactory);
+        assertEquals(20.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "product").gauge().value());
+        assertNotNull(meterRegistry.get("http.client.connection.lease").tag("client", "product").timer());
+        ((HttpComponentsClientHttpRequestFactory) requestFactory).destroy();
+    }
+
+    @DisplayName("JDK Backend - HTTP/2 Client")
+    @Test
+    void test_When_Jdk_Backend_Then_Jdk_Factory() {
+
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("order.http.user.backend", "jdk");
+
+        ClientHttpRequestFactory requestFactory = HttpTransportConfig.requestFactory("user",
+                HttpTransportSettings.from(environment, "user"), new SimpleMeterRegistry());
+
+        assertInstanceOf(JdkClientHttpRequestFactory.class, requestFactory);
+    }
+}
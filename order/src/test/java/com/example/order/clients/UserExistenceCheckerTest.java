@@ -0,0 +1,86 @@
+package com.example.order.clients;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCheckerTest {
+
+    private static final Duration POSITIVE_TTL = Duration.ofMinutes(5);
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(5);
+
+    @Mock
+    private UserServiceClient userServiceClient;
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @DisplayName("Existing User - Cached For The Positive TTL")
+    @Test
+    void test_When_User_Exists_Then_Cached_For_Positive_Ttl() {
+
+        when(userServiceClient.userExists("1")).thenReturn(ResponseEntity.ok().build());
+
+        UserExistenceChecker checker = newChecker();
+        assertTrue(checker.exists("1"));
+        advance(POSITIVE_TTL.minusSeconds(1));
+        assertTrue(checker.exists("1"));
+        verify(userServiceClient, times(1)).userExists("1");
+
+        advance(Duration.ofSeconds(2));
+        assertTrue(checker.exists("1"));
+        verify(userServiceClient, times(2)).userExists("1");
+    }
+
+    @DisplayName("Unknown User - Cached Only For The Negative TTL")
+    @Test
+    void test_When_User_Missing_Then_Cached_For_Negative_Ttl() {
+
+        when(userServiceClient.userExists("1"))
+                .thenReturn(ResponseEntity.notFound().build())
+                .thenReturn(ResponseEntity.ok().build());
+
+        UserExistenceChecker checker = newChecker();
+        assertFalse(checker.exists("1"));
+        assertFalse(checker.exists("1"));
+        verify(userServiceClient, times(1)).userExists("1");
+
+        //the user signed up in the meantime
+        advance(NEGATIVE_TTL.plusSeconds(1));
+        assertTrue(checker.exists("1"));
+        verify(userServiceClient, times(2)).userExists("1");
+    }
+
+    @DisplayName("Transport Error - Not Cached As Absent")
+    @Test
+    void test_When_User_Service_Unreachable_Then_Nothing_Cached() {
+
+        when(userServiceClient.userExists("1"))
+                .thenThrow(new ResourceAccessException("connect timed out"))
+                .thenReturn(ResponseEntity.ok().build());
+
+        UserExistenceChecker checker = newChecker();
+        assertThrows(ResourceAccessException.class, () -> checker.exists("1"));
+
+        assertTrue(checker.exists("1"));
+        verify(userServiceClient, times(2)).userExists("1");
+    }
+
+    private UserExistenceChecker newChecker() {
+        return new UserExistenceChecker(userServiceClient, 100, POSITIVE_TTL, NEGATIVE_TTL, nanos::get);
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.order.controllers;
+
+import com.example.order.clients.CachingProductServiceClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheControllerTest {
+
+    @Mock
+    private CachingProductServiceClient productServiceClient;
+
+    @InjectMocks
+    private CacheController cacheController;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(cacheController, "purgeToken", "secret");
+    }
+
+    @DisplayName("Purge Without Token - Refused, Cache Kept")
+    @Test
+    void test_When_Purge_Without_Token_Then_Forbidden() {
+
+        assertEquals(HttpStatus.FORBIDDEN, cacheController.evictProduct("1", null).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, cacheController.evictAllProducts("wrong").getStatusCode());
+
+        verify(productServiceClient, never()).invalidate(anyString());
+        verify(productServiceClient, never()).invalidateAll();
+    }
+
+    @DisplayName("Purge With Token - Product Evicted")
+    @Test
+    void test_When_Purge_With_Token_Then_Evicted() {
+
+        assertEquals(HttpStatus.NO_CONTENT, cacheController.evictProduct("1", "secret").getStatusCode());
+
+        verify(productServiceClient).invalidate("1");
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.order.events;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderCreatedMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderCreatedMetrics orderCreatedMetrics = new OrderCreatedMetrics(meterRegistry);
+
+    @DisplayName("Redelivered Event - Counted Once")
+    @Test
+    void test_When_Event_Redelivered_Then_Counted_Once() {
+
+        orderCreatedMetrics.onOrderCreated(event(1L));
+        orderCreatedMetrics.onOrderCreated(event(1L));
+        orderCreatedMetrics.onOrderCreated(event(2L));
+
+        assertEquals(2.0, meterRegistry.get("orders.created").counter().count());
+    }
+
+    private static OrderCreatedEvent event(Long eventId) {
+        return new OrderCreatedEvent(eventId, 10L, "user1", BigDecimal.TEN, List.of(), LocalDateTime.now());
+    }
+}
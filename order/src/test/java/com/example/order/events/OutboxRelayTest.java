@@ -0,0 +1,108 @@
+package com.example.order.events;
+
+import com.example.order.models.OutboxEvent;
+import com.example.order.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OrderEventPublisher orderEventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 2);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(null);
+        });
+    }
+
+    @DisplayName("Relay - Every Event Published And Marked")
+    @Test
+    void test_When_All_Published_Then_All_Marked() {
+
+        OutboxEvent event1 = getOutboxEvent(1L);
+        OutboxEvent event2 = getOutboxEvent(2L);
+        OutboxEvent event3 = getOutboxEvent(3L);
+
+        //a full batch makes the relay ask for the next one straight away
+        when(outboxEventRepository.lockUnpublished(2))
+                .thenReturn(List.of(event1, event2))
+                .thenReturn(List.of(event3));
+
+        outboxRelay.relay();
+
+        verify(orderEventPublisher).publish(event1);
+        verify(orderEventPublisher).publish(event2);
+        verify(orderEventPublisher).publish(event3);
+        verify(outboxEventRepository).markPublished(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).markPublished(eq(List.of(3L)), any(LocalDateTime.class));
+        verify(outboxEventRepository, times(2)).lockUnpublished(anyInt());
+    }
+
+    @DisplayName("Relay - Failed Event Stops The Batch")
+    @Test
+    void test_When_Publish_Fails_Then_Rest_Left_For_Retry() {
+
+        OutboxEvent event1 = getOutboxEvent(1L);
+        OutboxEvent event2 = getOutboxEvent(2L);
+
+        when(outboxEventRepository.lockUnpublished(2))
+                .thenReturn(List.of(event1, event2));
+        doNothing().when(orderEventPublisher).publish(event1);
+        doThrow(new IllegalStateException("listener failed")).when(orderEventPublisher).publish(event2);
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository).markPublished(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(outboxEventRepository, times(1)).lockUnpublished(anyInt());
+    }
+
+    @DisplayName("Relay - Empty Outbox")
+    @Test
+    void test_When_Outbox_Empty_Then_Nothing_Marked() {
+
+        when(outboxEventRepository.lockUnpublished(2))
+                .thenReturn(List.of());
+
+        assertEquals(0, outboxRelay.relayBatch());
+
+        verify(orderEventPublisher, never()).publish(any());
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    private OutboxEvent getOutboxEvent(Long id) {
+        OutboxEvent event = new OutboxEvent("10", OrderCreatedEvent.TYPE, "{}");
+        event.setId(id);
+        return event;
+    }
+}
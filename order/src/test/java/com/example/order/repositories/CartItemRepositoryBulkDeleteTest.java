@@ -0,0 +1,73 @@
+package com.example.order.repositories;
+
+import com.example.order.models.CartItem;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs against the configured PostgreSQL database, like OrderApplicationTests
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JdbcRoundTripCounter.class)
+class CartItemRepositoryBulkDeleteTest {
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcRoundTripCounter roundTripCounter;
+
+    @DisplayName("Clear Cart - Single Delete Statement")
+    @Test
+    void test_When_Delete_By_UserId_Then_One_Statement() {
+
+        List<CartItem> cartItems = cartItemRepository.saveAll(List.of(
+                getCartItem("P1"), getCartItem("P2"), getCartItem("P3")));
+
+        roundTripCounter.reset();
+        int deleted = cartItemRepository.deleteByUserId("bulk-user");
+
+        assertEquals(3, deleted);
+        assertEquals(1, roundTripCounter.getRoundTrips(), "got " + roundTripCounter.getExecutedSql());
+        assertTrue(roundTripCounter.getExecutedSql().get(0).toLowerCase().startsWith("delete"));
+        //the bulk delete clears the persistence context, nothing stale is left behind
+        assertFalse(entityManager.contains(cartItems.get(0)));
+        assertTrue(cartItemRepository.findByUserId("bulk-user").isEmpty());
+    }
+
+    @DisplayName("Delete Item From Cart - Single Delete Statement")
+    @Test
+    void test_When_Delete_By_UserId_And_ProductId_Then_One_Statement() {
+
+        cartItemRepository.saveAll(List.of(getCartItem("P1"), getCartItem("P2")));
+
+        roundTripCounter.reset();
+        int deleted = cartItemRepository.deleteByUserIdAndProductId("bulk-user", "P1");
+
+        assertEquals(1, deleted);
+        assertEquals(1, roundTripCounter.getRoundTrips(), "got " + roundTripCounter.getExecutedSql());
+        assertNull(cartItemRepository.findByUserIdAndProductId("bulk-user", "P1"));
+        assertNotNull(cartItemRepository.findByUserIdAndProductId("bulk-user", "P2"));
+    }
+
+    private CartItem getCartItem(String productId) {
+        CartItem cartItem = new CartItem();
+        cartItem.setUserId("bulk-user");
+        cartItem.setProductId(productId);
+        cartItem.setQuantity(1);
+        cartItem.setPrice(BigDecimal.TEN);
+        return cartItem;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.order.repositories;
+
+import com.example.order.models.CartItem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs against the configured PostgreSQL database, like OrderApplicationTests
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JdbcRoundTripCounter.class)
+class CartItemRepositoryUpsertTest {
+
+    @Autowired
+    private CartItemRepository cartItemRepository;
+
+    @Autowired
+    private JdbcRoundTripCounter roundTripCounter;
+
+    @DisplayName("Add to Cart - Upsert Adds To Existing Line")
+    @Test
+    void test_When_Upsert_Twice_Then_One_Row_With_Summed_Quantity() {
+
+        roundTripCounter.reset();
+        cartItemRepository.upsertItem("upsert-user", "P1", 2, BigDecimal.TEN);
+        assertEquals(1, roundTripCounter.getRoundTrips(), "got " + roundTripCounter.getExecutedSql());
+
+        cartItemRepository.upsertItem("upsert-user", "P1", 3, BigDecimal.ONE);
+
+        List<CartItem> cartItems = cartItemRepository.findByUserId("upsert-user");
+        assertEquals(1, cartItems.size());
+        assertEquals(5, cartItems.get(0).getQuantity());
+        assertEquals(0, BigDecimal.ONE.compareTo(cartItems.get(0).getPrice()));
+        assertNotNull(cartItems.get(0).getCreatedAt());
+    }
+}
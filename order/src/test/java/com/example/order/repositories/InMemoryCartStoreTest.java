@@ -0,0 +1,93 @@
+package com.example.order.repositories;
+
+import com.example.order.models.CartItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryCartStoreTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private InMemoryCartStore cartStore;
+
+    @BeforeEach
+    void setUp() {
+        cartStore = new InMemoryCartStore(100, Duration.ofMinutes(30), nanos::get);
+    }
+
+    @DisplayName("Add Item - Same Product Adds To The Line")
+    @Test
+    void test_When_Add_Same_Product_Twice_Then_Quantity_Summed() {
+
+        cartStore.addItem("user1", "P1", 2, BigDecimal.TEN);
+        cartStore.addItem("user1", "P1", 3, BigDecimal.ONE);
+        cartStore.addItem("user1", "P2", 1, BigDecimal.TEN);
+
+        List<CartItem> cartItems = cartStore.getItems("user1");
+
+        assertEquals(2, cartItems.size());
+        assertEquals("P1", cartItems.get(0).getProductId());
+        assertEquals(5, cartItems.get(0).getQuantity());
+        assertEquals(BigDecimal.ONE, cartItems.get(0).getPrice());
+        assertNotNull(cartItems.get(0).getCreatedAt());
+    }
+
+    @DisplayName("Get Items - Returned Lines Are Copies")
+    @Test
+    void test_When_Returned_Item_Changed_Then_Store_Unchanged() {
+
+        cartStore.addItem("user1", "P1", 2, BigDecimal.TEN);
+
+        cartStore.getItems("user1").get(0).setQuantity(100);
+
+        assertEquals(2, cartStore.getItems("user1").get(0).getQuantity());
+    }
+
+    @DisplayName("Remove Item - Success And Not Found")
+    @Test
+    void test_When_Remove_Item_Then_Only_That_Line_Removed() {
+
+        cartStore.addItem("user1", "P1", 2, BigDecimal.TEN);
+        cartStore.addItem("user1", "P2", 1, BigDecimal.TEN);
+
+        assertTrue(cartStore.removeItem("user1", "P1"));
+        assertFalse(cartStore.removeItem("user1", "P1"));
+        assertFalse(cartStore.removeItem("user2", "P1"));
+        assertEquals(1, cartStore.getItems("user1").size());
+    }
+
+    @DisplayName("Clear Cart - Success")
+    @Test
+    void test_When_Clear_Then_Cart_Empty() {
+
+        cartStore.addItem("user1", "P1", 2, BigDecimal.TEN);
+
+        cartStore.clear("user1");
+
+        assertTrue(cartStore.getItems("user1").isEmpty());
+    }
+
+    @DisplayName("Idle Cart - Expires After TTL")
+    @Test
+    void test_When_Cart_Idle_Past_Ttl_Then_Expired() {
+
+        cartStore.addItem("user1", "P1", 2, BigDecimal.TEN);
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+        assertEquals(1, cartStore.getItems("user1").size());
+
+        //the read above counts as access
+        nanos.addAndGet(Duration.ofMinutes(20).toNanos());
+        assertEquals(1, cartStore.getItems("user1").size());
+
+        nanos.addAndGet(Duration.ofMinutes(31).toNanos());
+        assertTrue(cartStore.getItems("user1").isEmpty());
+    }
+}
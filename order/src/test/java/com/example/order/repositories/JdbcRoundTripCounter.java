@@ -0,0 +1,61 @@
+package com.example.order.repositories;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+//wraps the DataSource and records every statement execution, i.e. every database round trip
+public class JdbcRoundTripCounter implements BeanPostProcessor {
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final List<String> executedSql = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+            return wrap(dataSource, DataSource.class, null);
+        }
+        return bean;
+    }
+
+    public void reset() {
+        executedSql.clear();
+    }
+
+    public int getRoundTrips() {
+        return executedSql.size();
+    }
+
+    public List<String> getExecutedSql() {
+        return List.copyOf(executedSql);
+    }
+
+    private Object wrap(Object target, Class<?> type, String sql) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            String statementSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            Class<?> returnType = method.getReturnType();
+            if (EXECUTE_METHODS.contains(method.getName()) && Statement.class.isAssignableFrom(type)) {
+                executedSql.add(String.valueOf(statementSql));
+            } else if (result != null && returnType.isInterface()
+                    && (returnType == Connection.class || Statement.class.isAssignableFrom(returnType))) {
+                return wrap(result, returnType, statementSql);
+            }
+            return result;
+        });
+    }
+}
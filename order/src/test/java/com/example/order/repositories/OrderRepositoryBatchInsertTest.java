@@ -0,0 +1,56 @@
+package com.example.order.repositories;
+
+import com.example.order.models.Order;
+import com.example.order.models.OrderItem;
+import com.example.order.models.OrderStatus;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs against the configured PostgreSQL database, like OrderApplicationTests
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(JdbcRoundTripCounter.class)
+class OrderRepositoryBatchInsertTest {
+
+    private static final int ORDER_LINES = 120;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcRoundTripCounter roundTripCounter;
+
+    @DisplayName("Save Order - Order Lines Inserted In Batches")
+    @Test
+    void test_When_Save_Large_Order_Then_Items_Are_Batched() {
+
+        Order order = new Order();
+        order.setUserId("user1");
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setTotalAmount(BigDecimal.valueOf(ORDER_LINES));
+        for (int i = 0; i < ORDER_LINES; i++) {
+            order.getItems().add(new OrderItem(null, "P" + i, 1, BigDecimal.ONE, BigDecimal.ONE, order));
+        }
+
+        roundTripCounter.reset();
+        orderRepository.save(order);
+        entityManager.flush();
+        int roundTrips = roundTripCounter.getRoundTrips();
+
+        //1 order insert + 3 item batches of 50 + at most 1 + 3 sequence calls
+        assertTrue(roundTrips <= 8, "expected batched inserts for " + ORDER_LINES + " lines, got " + roundTrips
+                + " round trips (" + (ORDER_LINES + 1) + " with identity ids): " + roundTripCounter.getExecutedSql());
+    }
+}
@@ -1,19 +1,38 @@
 package com.example.product.controller;
 
+import com.example.product.dtos.ProductSuggestion;
+import com.example.product.dtos.StockReservationRequest;
 import com.example.product.model.Product;
 import com.example.product.service.ProductService;
+import com.example.product.service.ProductSuggestionIndex;
+import com.example.product.service.StockService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private ProductService productService;
+    @Autowired
+    private StockService stockService;
+    @Autowired
+    private ProductSuggestionIndex productSuggestionIndex;
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @PostMapping
     public ResponseEntity<Product> createProduct(@RequestBody Product product){
@@ -30,9 +49,41 @@ public class ProductController {
                 .orElseGet(()->ResponseEntity.notFound().build());
     }
 
+    //keyset pagination, the next page starts after the id in X-Next-Cursor
     @GetMapping
-    public ResponseEntity<List<Product>> getProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<List<Product>> getProducts(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "50") int limit) {
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+        List<Product> products = productService.getProducts(after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (products.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(products.getLast().getId()));
+        }
+        return response.body(products);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamProducts() {
+        StreamingResponseBody body = outputStream -> productService.streamActiveProducts(product -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(product));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    //served from memory, never touches the database
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productSuggestionIndex.suggest(prefix, Math.clamp(limit, 1, ProductSuggestionIndex.MAX_SUGGESTIONS)));
     }
 
     @GetMapping("/{id}")
@@ -42,6 +93,25 @@ public class ProductController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<Product>> getProductsByIds(@RequestBody List<String> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(productService.getProductsByIds(ids));
+    }
+
+    @PostMapping("/stock/reserve")
+    public ResponseEntity<Void> reserveStock(@RequestBody List<StockReservationRequest> items) {
+        stockService.reserveStock(items);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/stock/release")
+    public ResponseEntity<Void> releaseStock(@RequestBody List<StockReservationRequest> items) {
+        stockService.releaseStock(items);
+        return ResponseEntity.noContent().build();
+    }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
@@ -50,7 +120,11 @@ public class ProductController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> searchProducts(@RequestParam String keyword) {
-        return ResponseEntity.ok(productService.searchProducts(keyword));
+    public ResponseEntity<List<Product>> searchProducts(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProducts(keyword,
+                Math.max(page, 0), Math.clamp(size, 1, MAX_PAGE_SIZE)));
     }
 }
@@ -0,0 +1,4 @@
+package com.example.product.dtos;
+
+public record ProductSuggestion(Long id, String name) {
+}
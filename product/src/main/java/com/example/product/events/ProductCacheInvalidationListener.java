@@ -0,0 +1,64 @@
+package com.example.product.events;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.List;
+
+//tells every instance of the subscribed services to drop its cached copy of a changed product
+@Component
+public class ProductCacheInvalidationListener {
+    private static final Logger logger = LoggerFactory.getLogger(ProductCacheInvalidationListener.class);
+
+    @Autowired
+    private DiscoveryClient discoveryClient;
+
+    @Value("${product.cache-invalidation.subscribers:order}")
+    private List<String> subscribers;
+
+    //the gateway serves its purge endpoint on the public port and refuses calls without it
+    @Value("${product.cache-invalidation.token:}")
+    private String token;
+
+    private final RestClient restClient;
+
+    public ProductCacheInvalidationListener(RestClient.Builder restClientBuilder) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(500));
+        requestFactory.setReadTimeout(Duration.ofSeconds(1));
+        this.restClient = restClientBuilder.requestFactory(requestFactory).build();
+    }
+
+    //creations are sent too, listings cached at the gateway have to pick up the new product
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Long productId = event.product().getId();
+        for (String subscriber : subscribers) {
+            for (ServiceInstance instance : discoveryClient.getInstances(subscriber)) {
+                //fire and forget, a missed eviction is bounded by the subscriber's own TTL
+                Thread.startVirtualThread(() -> evict(instance, productId));
+            }
+        }
+    }
+
+    private void evict(ServiceInstance instance, Long productId) {
+        try {
+            restClient.delete()
+                    .uri(instance.getUri() + "/internal/cache/products/{id}", productId)
+                    .header("X-Cache-Purge-Token", token)
+                    .retrieve()
+                    .toBodilessEntity();
+        } catch (RuntimeException e) {
+            logger.warn("Could not evict product {} from {}: {}", productId, instance.getUri(), e.getMessage());
+        }
+    }
+}
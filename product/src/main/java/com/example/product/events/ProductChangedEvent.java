@@ -0,0 +1,9 @@
+package com.example.product.events;
+
+import com.example.product.model.Product;
+
+public record ProductChangedEvent(Product product, ChangeType type) {
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
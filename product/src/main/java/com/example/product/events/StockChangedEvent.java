@@ -0,0 +1,7 @@
+package com.example.product.events;
+
+import java.util.Map;
+
+//published once stock has been reserved or released, negative quantities are reservations
+public record StockChangedEvent(Map<Long, Integer> changes) {
+}
@@ -25,4 +25,25 @@ public class GlobalExceptionHandeller {
 
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Map<String, String>> handleInsufficientStock(
+            InsufficientStockException ex) {
+        return new ResponseEntity<>(Map.of("productId", String.valueOf(ex.getProductId()),
+                "message", ex.getMessage()), HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(StockUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleStockUnavailable(
+            StockUnavailableException ex) {
+        return new ResponseEntity<>(Map.of("productId", String.valueOf(ex.getProductId()),
+                "message", ex.getMessage()), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<Map<String, String>> handleIllegalArgument(
+            IllegalArgumentException ex) {
+        //Map.of rejects null, an exception without a message must not turn the 400 into a 500
+        return new ResponseEntity<>(Map.of("message", String.valueOf(ex.getMessage())), HttpStatus.BAD_REQUEST);
+    }
 }
@@ -0,0 +1,13 @@
+package com.example.product.exceptions;
+
+import lombok.Getter;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+    private final Long productId;
+
+    public InsufficientStockException(Long productId) {
+        super("Insufficient stock for product " + productId);
+        this.productId = productId;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.product.exceptions;
+
+import lombok.Getter;
+
+//the stock could not be confirmed because the database failed, not because there is too little of it
+@Getter
+public class StockUnavailableException extends RuntimeException {
+    private final Long productId;
+
+    public StockUnavailableException(Long productId, Throwable cause) {
+        super("Stock of product " + productId + " could not be confirmed, try again", cause);
+        this.productId = productId;
+    }
+}
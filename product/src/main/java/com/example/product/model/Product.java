@@ -45,6 +45,10 @@ public class Product {
 
     private Boolean active = true;
 
+    //stock of hot products is served from in-memory counters during flash sales
+    //no default here: a PUT that leaves it out must keep the flag, createProduct stores false instead
+    private Boolean hotSku;
+
     @CreationTimestamp
     private LocalDateTime createAt;
     @UpdateTimestamp
@@ -1,20 +1,55 @@
 package com.example.product.repository;
 
 import com.example.product.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product,Long> {
-    List<Product> findByActiveTrue();
+    List<Product> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 
-    @Query("SELECT p FROM products p WHERE p.active = true AND p.stockQuantity > 0 AND LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-    List<Product> searchProducts(@Param("keyword") String keyword);
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p FROM products p WHERE p.active = true ORDER BY p.id")
+    Stream<Product> streamByActiveTrue();
+
+    //search_vector and its GIN index are created by schema.sql
+    @Query(value = """
+            SELECT * FROM products p
+            WHERE p.active = true AND p.stock_quantity > 0
+              AND p.search_vector @@ to_tsquery('simple', :query)
+            ORDER BY ts_rank(p.search_vector, to_tsquery('simple', :query)) DESC, p.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Product> searchProducts(@Param("query") String query,
+                                 @Param("limit") int limit,
+                                 @Param("offset") long offset);
 
     Optional<Product> findByIdAndActiveTrue(Long id);
+
+    List<Product> findByIdInAndActiveTrue(Collection<Long> ids);
+
+    List<Product> findByHotSkuTrueAndActiveTrue();
+
+    @Query("SELECT p.stockQuantity FROM products p WHERE p.id = :id")
+    Optional<Integer> findStockQuantityById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE products p SET p.stockQuantity = p.stockQuantity - :quantity WHERE p.id = :id AND p.active = true AND p.stockQuantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE products p SET p.stockQuantity = p.stockQuantity + :quantity WHERE p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
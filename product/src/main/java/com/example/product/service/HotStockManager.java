@@ -0,0 +1,197 @@
+package com.example.product.service;
+
+import com.example.product.events.ProductChangedEvent;
+import com.example.product.exceptions.InsufficientStockException;
+import com.example.product.model.Product;
+import com.example.product.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/*
+ * Stock for products flagged hotSku is granted from in-memory striped counters and written to the
+ * products table in one statement per product per flush. A grant is only acknowledged once the
+ * flush that carries it has committed, so a crash loses nothing that was promised to a buyer and
+ * the counters are simply reloaded from the table on restart. The flush keeps the
+ * "stock >= :quantity" guard, which keeps several product instances honest against each other.
+ */
+@Component
+public class HotStockManager {
+    private static final Logger logger = LoggerFactory.getLogger(HotStockManager.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${product.hot-stock.stripes:16}")
+    private int stripes;
+
+    private final Map<Long, HotSku> hotSkus = new ConcurrentHashMap<>();
+
+    //positive quantities are reservations, negative ones releases
+    private record PendingChange(int quantity, CompletableFuture<Void> flushed) {
+    }
+
+    private static final class HotSku {
+        private final StripedStockCounter counter;
+        private final ConcurrentLinkedQueue<PendingChange> pending = new ConcurrentLinkedQueue<>();
+        private volatile boolean retired;
+        private volatile boolean needsReconcile;
+
+        private HotSku(StripedStockCounter counter) {
+            this.counter = counter;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        productRepository.findByHotSkuTrueAndActiveTrue()
+                .forEach(product -> hotSkus.put(product.getId(), newHotSku(product)));
+        logger.info("Serving stock of {} hot products from memory", hotSkus.size());
+    }
+
+    @EventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Product product = event.product();
+        boolean hot = Boolean.TRUE.equals(product.getHotSku()) && Boolean.TRUE.equals(product.getActive());
+        HotSku sku = hotSkus.get(product.getId());
+        if (sku == null) {
+            if (hot) hotSkus.putIfAbsent(product.getId(), newHotSku(product));
+            return;
+        }
+        //retired products keep flushing what they already granted, new requests go to the table
+        sku.retired = !hot;
+        sku.needsReconcile = true;
+    }
+
+    public boolean isHot(Long productId) {
+        HotSku sku = hotSkus.get(productId);
+        return sku != null && !sku.retired;
+    }
+
+    //all or nothing in memory, each future completes once that product's decrement is committed
+    public Map<Long, CompletableFuture<Void>> reserve(Map<Long, Integer> quantities) {
+        Map<Long, HotSku> granted = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            HotSku sku = hotSkus.get(entry.getKey());
+            if (sku == null || sku.retired || !sku.counter.tryAcquire(entry.getValue())) {
+                granted.forEach((productId, grantedSku) -> grantedSku.counter.release(quantities.get(productId)));
+                throw new InsufficientStockException(entry.getKey());
+            }
+            granted.put(entry.getKey(), sku);
+        }
+
+        Map<Long, CompletableFuture<Void>> flushed = new LinkedHashMap<>();
+        granted.forEach((productId, sku) -> {
+            CompletableFuture<Void> future = new CompletableFuture<>();
+            sku.pending.add(new PendingChange(quantities.get(productId), future));
+            flushed.put(productId, future);
+        });
+        return flushed;
+    }
+
+    //the stock is usable again straight away, the table catches up on the next flush
+    public void release(Long productId, int quantity) {
+        HotSku sku = hotSkus.get(productId);
+        if (sku == null) {
+            transactionTemplate.executeWithoutResult(status -> productRepository.releaseStock(productId, quantity));
+            return;
+        }
+        sku.counter.release(quantity);
+        sku.pending.add(new PendingChange(-quantity, new CompletableFuture<>()));
+    }
+
+    @Scheduled(fixedDelayString = "${product.hot-stock.flush-interval-ms:10}")
+    public void flush() {
+        hotSkus.forEach(this::flush);
+    }
+
+    //catches drift from admin edits and from other instances writing the same rows
+    @Scheduled(fixedDelayString = "${product.hot-stock.reconcile-interval-ms:30000}")
+    public void scheduleReconcile() {
+        hotSkus.values().forEach(sku -> sku.needsReconcile = true);
+    }
+
+    private void flush(Long productId, HotSku sku) {
+        List<PendingChange> batch = new ArrayList<>();
+        for (PendingChange change = sku.pending.poll(); change != null; change = sku.pending.poll()) {
+            batch.add(change);
+        }
+
+        if (!batch.isEmpty()) {
+            int delta = batch.stream().mapToInt(PendingChange::quantity).sum();
+            try {
+                Boolean applied = transactionTemplate.execute(status -> apply(productId, delta));
+                if (Boolean.TRUE.equals(applied)) {
+                    batch.forEach(change -> change.flushed().complete(null));
+                } else {
+                    //the table has less than memory believed, settle buyers one at a time
+                    settleIndividually(productId, batch);
+                    sku.needsReconcile = true;
+                }
+            } catch (RuntimeException e) {
+                logger.warn("Could not flush hot stock of product {}: {}", productId, e.getMessage());
+                batch.forEach(change -> change.flushed().completeExceptionally(e));
+                sku.needsReconcile = true;
+            }
+        }
+
+        if (sku.needsReconcile) {
+            reconcile(productId, sku);
+        } else {
+            sku.counter.rebalance();
+        }
+    }
+
+    private void settleIndividually(Long productId, List<PendingChange> batch) {
+        List<PendingChange> ordered = new ArrayList<>(batch);
+        ordered.sort(Comparator.comparingInt(PendingChange::quantity));
+        List<PendingChange> rejected = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> ordered.forEach(change -> {
+            if (!apply(productId, change.quantity())) rejected.add(change);
+        }));
+        ordered.forEach(change -> {
+            if (rejected.contains(change)) {
+                change.flushed().completeExceptionally(new InsufficientStockException(productId));
+            } else {
+                change.flushed().complete(null);
+            }
+        });
+    }
+
+    private boolean apply(Long productId, int delta) {
+        if (delta > 0) return productRepository.reserveStock(productId, delta) == 1;
+        if (delta < 0) return productRepository.releaseStock(productId, -delta) == 1;
+        return true;
+    }
+
+    //memory should hold what the table holds minus whatever is still waiting to be flushed
+    private void reconcile(Long productId, HotSku sku) {
+        sku.needsReconcile = false;
+        productRepository.findStockQuantityById(productId).ifPresent(stock -> {
+            long queued = sku.pending.stream().mapToLong(PendingChange::quantity).sum();
+            sku.counter.adjust(stock - queued - sku.counter.available());
+        });
+    }
+
+    private HotSku newHotSku(Product product) {
+        int stock = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+        return new HotSku(new StripedStockCounter(stock, stripes));
+    }
+}
@@ -1,21 +1,43 @@
 package com.example.product.service;
 
+import com.example.product.events.ProductChangedEvent;
 import com.example.product.model.Product;
 import com.example.product.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     @Autowired
     private ProductRepository productRepository;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public Product createProduct(Product product) {
         product.setActive(true);
-        return productRepository.save(product);
+        if (product.getHotSku() == null) product.setHotSku(false);
+        Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(savedProduct, ProductChangedEvent.ChangeType.CREATED));
+        return savedProduct;
     }
 
     public Optional<Product> updateProduct(Long id, Product product) {
@@ -28,12 +50,28 @@ public class ProductService {
                     existingProduct.setImageUrl(product.getImageUrl());
                     existingProduct.setStockQuantity(product.getStockQuantity());
                     existingProduct.setActive(product.getActive());
-                    return productRepository.save(existingProduct);
+                    //only an explicit hotSku changes the flag
+                    if (product.getHotSku() != null) existingProduct.setHotSku(product.getHotSku());
+                    Product savedProduct = productRepository.save(existingProduct);
+                    eventPublisher.publishEvent(new ProductChangedEvent(savedProduct, ProductChangedEvent.ChangeType.UPDATED));
+                    return savedProduct;
                 });
     }
 
-    public List<Product> getAllProducts() {
-        return productRepository.findByActiveTrue();
+    public List<Product> getProducts(Long after, int limit) {
+        return productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(
+                after == null ? 0L : after, Limit.of(limit));
+    }
+
+    //rows are detached as soon as they are handed over so the persistence context stays empty
+    @Transactional(readOnly = true)
+    public void streamActiveProducts(Consumer<Product> consumer) {
+        try (Stream<Product> products = productRepository.streamByActiveTrue()) {
+            products.forEach(product -> {
+                consumer.accept(product);
+                entityManager.detach(product);
+            });
+        }
     }
 
     public boolean deleteProduct(Long id) {
@@ -41,18 +79,38 @@ public class ProductService {
                 .map(product -> {
                     product.setActive(false);
                     productRepository.save(product);
+                    eventPublisher.publishEvent(new ProductChangedEvent(product, ProductChangedEvent.ChangeType.DELETED));
                     return true;
                 })
                 .orElse(false);
     }
 
-    public List<Product> searchProducts(String keyword) {
-        return productRepository.searchProducts(keyword);
+    public List<Product> searchProducts(String keyword, int page, int size) {
+        String query = toPrefixQuery(keyword);
+        if (query.isEmpty()) return List.of();
+        //page * size overflows int for large pages, the offset is computed as a long
+        return productRepository.searchProducts(query, size, Math.multiplyExact((long) page, size));
+    }
+
+    //"iPhone pro" -> "iphone:* & pro:*", anything that is not a letter or digit is dropped
+    private static String toPrefixQuery(String keyword) {
+        return Arrays.stream(NON_WORD.split(keyword.toLowerCase(Locale.ROOT)))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
     }
 
     public Optional<Product> getProductById(String id) {
         return productRepository.findByIdAndActiveTrue(Long.valueOf(id));
     }
 
+    public List<Product> getProductsByIds(List<String> ids) {
+        Set<Long> productIds = ids.stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toSet());
+        if (productIds.isEmpty()) return List.of();
+        return productRepository.findByIdInAndActiveTrue(productIds);
+    }
+
 
 }
@@ -0,0 +1,283 @@
+package com.example.product.service;
+
+import com.example.product.dtos.ProductSuggestion;
+import com.example.product.events.ProductChangedEvent;
+import com.example.product.events.StockChangedEvent;
+import com.example.product.model.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/*
+ * Typeahead over product names. Every word of a name starts a term ("iphone 15 pro" is found by "iph",
+ * "15" and "pro"), the terms live in a character trie and every node keeps the best MAX_SUGGESTIONS
+ * products below it, so a lookup is a walk down the prefix and a copy of at most that many entries.
+ * The trie stops at MAX_DEPTH characters, longer terms share the node of their first MAX_DEPTH
+ * characters and a longer prefix only filters that one node. A write refreshes the nodes on the
+ * product's own paths, deepest first, each from its children's lists.
+ */
+@Component
+public class ProductSuggestionIndex {
+    public static final int MAX_SUGGESTIONS = 50;
+    private static final int MAX_DEPTH = 4;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    //most stock first, the older product wins a tie
+    private static final Comparator<Entry> BY_RANK = Comparator.<Entry>comparingInt(Entry::stock).reversed()
+            .thenComparingLong(Entry::productId);
+
+    private static final Entry[] NONE = new Entry[0];
+
+    private record Entry(long productId, String name, int stock) {
+    }
+
+    //the terms of one product that stop at a node
+    private record Ending(Entry entry, List<String> terms) {
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new ConcurrentHashMap<>();
+        private final Map<Long, Ending> endings = new ConcurrentHashMap<>();
+        //best first, replaced on every refresh so readers never lock
+        private volatile Entry[] top = NONE;
+
+        private boolean isEmpty() {
+            return children.isEmpty() && endings.isEmpty();
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    private volatile Node root = new Node();
+
+    //what the trie holds per product, only touched under the lock
+    private Map<Long, Entry> entries = new HashMap<>();
+    private Map<Long, List<String>> terms = new HashMap<>();
+
+    //products written while a rebuild loads, the rebuild keeps their live state
+    private Set<Long> changedDuringRebuild;
+
+    private final Object rebuildLock = new Object();
+
+    //stock moves on other product instances only reach the ranking here
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.suggest.rebuild-interval-ms:300000}",
+            fixedDelayString = "${product.suggest.rebuild-interval-ms:300000}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashSet<>();
+            }
+            //loaded without the lock, writes keep flowing into the current trie meanwhile
+            Map<Long, Entry> loadedEntries = new HashMap<>();
+            Map<Long, List<String>> loadedTerms = new HashMap<>();
+            try {
+                productService.streamActiveProducts(product -> {
+                    List<String> productTerms = termsOf(product);
+                    if (productTerms.isEmpty()) return;
+                    loadedEntries.put(product.getId(), entryOf(product));
+                    loadedTerms.put(product.getId(), productTerms);
+                });
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                swapIn(loadedEntries, loadedTerms);
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        Product product = event.product();
+        List<String> productTerms = termsOf(product);
+        replace(product.getId(), productTerms.isEmpty() ? null : entryOf(product), productTerms);
+    }
+
+    @EventListener
+    public synchronized void onStockChanged(StockChangedEvent event) {
+        event.changes().forEach((productId, change) -> {
+            Entry entry = entries.get(productId);
+            if (entry == null) return;
+            int stock = Math.clamp((long) entry.stock() + change, 0, Integer.MAX_VALUE);
+            replace(productId, new Entry(productId, entry.name(), stock), terms.get(productId));
+        });
+    }
+
+    public List<ProductSuggestion> suggest(String prefix, int limit) {
+        String normalizedPrefix = String.join(" ", NON_WORD.split(normalize(prefix))).strip();
+        if (normalizedPrefix.isEmpty() || limit <= 0) return List.of();
+
+        Node node = root;
+        int depth = Math.min(normalizedPrefix.length(), MAX_DEPTH);
+        for (int i = 0; i < depth && node != null; i++) {
+            node = node.children.get(normalizedPrefix.charAt(i));
+        }
+        if (node == null) return List.of();
+
+        Entry[] ranked = normalizedPrefix.length() <= MAX_DEPTH ? node.top : matching(node, normalizedPrefix);
+        return Arrays.stream(ranked)
+                .limit(Math.min(limit, MAX_SUGGESTIONS))
+                .map(entry -> new ProductSuggestion(entry.productId(), entry.name()))
+                .toList();
+    }
+
+    //a node at MAX_DEPTH has no children, its endings are every term under it
+    private static Entry[] matching(Node node, String prefix) {
+        List<Entry> matches = new ArrayList<>();
+        for (Ending ending : node.endings.values()) {
+            if (ending.terms().stream().anyMatch(term -> term.startsWith(prefix))) matches.add(ending.entry());
+        }
+        matches.sort(BY_RANK);
+        return matches.toArray(Entry[]::new);
+    }
+
+    private void replace(long productId, Entry entry, List<String> productTerms) {
+        Node current = root;
+        List<List<Node>> paths = new ArrayList<>();
+        for (String term : terms.getOrDefault(productId, List.of())) {
+            List<Node> path = path(current, term, false);
+            if (path == null) continue;
+            path.getLast().endings.remove(productId);
+            paths.add(path);
+        }
+
+        if (entry == null) {
+            entries.remove(productId);
+            terms.remove(productId);
+        } else {
+            for (String term : productTerms) {
+                List<Node> path = path(current, term, true);
+                addEnding(path.getLast(), entry, term);
+                paths.add(path);
+            }
+            entries.put(productId, entry);
+            terms.put(productId, productTerms);
+        }
+        if (changedDuringRebuild != null) changedDuringRebuild.add(productId);
+
+        //deepest first, a parent merges lists its children already refreshed
+        List<Set<Node>> levels = new ArrayList<>();
+        for (int depth = 0; depth <= MAX_DEPTH; depth++) levels.add(new LinkedHashSet<>());
+        for (List<Node> path : paths) {
+            for (int depth = 0; depth < path.size(); depth++) levels.get(depth).add(path.get(depth));
+        }
+        for (int depth = MAX_DEPTH; depth >= 0; depth--) levels.get(depth).forEach(ProductSuggestionIndex::refresh);
+    }
+
+    private void swapIn(Map<Long, Entry> loadedEntries, Map<Long, List<String>> loadedTerms) {
+        for (Long productId : changedDuringRebuild) {
+            Entry live = entries.get(productId);
+            if (live == null) {
+                loadedEntries.remove(productId);
+                loadedTerms.remove(productId);
+            } else {
+                loadedEntries.put(productId, live);
+                loadedTerms.put(productId, terms.get(productId));
+            }
+        }
+        changedDuringRebuild = null;
+
+        Node fresh = new Node();
+        loadedEntries.forEach((productId, entry) -> {
+            for (String term : loadedTerms.get(productId)) addEnding(path(fresh, term, true).getLast(), entry, term);
+        });
+        refreshAll(fresh);
+        entries = loadedEntries;
+        terms = loadedTerms;
+        root = fresh;
+    }
+
+    private static List<Node> path(Node from, String term, boolean create) {
+        int depth = Math.min(term.length(), MAX_DEPTH);
+        List<Node> path = new ArrayList<>(depth + 1);
+        Node node = from;
+        path.add(node);
+        for (int i = 0; i < depth; i++) {
+            node = create
+                    ? node.children.computeIfAbsent(term.charAt(i), key -> new Node())
+                    : node.children.get(term.charAt(i));
+            if (node == null) return null;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private static void addEnding(Node node, Entry entry, String term) {
+        node.endings.compute(entry.productId(), (productId, ending) -> {
+            if (ending == null) return new Ending(entry, List.of(term));
+            List<String> endingTerms = new ArrayList<>(ending.terms());
+            endingTerms.add(term);
+            return new Ending(entry, endingTerms);
+        });
+    }
+
+    private static void refreshAll(Node node) {
+        node.children.values().forEach(ProductSuggestionIndex::refreshAll);
+        refresh(node);
+    }
+
+    //a product is in a node's best list only if it is in the best list of the child it came through
+    private static void refresh(Node node) {
+        node.children.values().removeIf(Node::isEmpty);
+
+        List<Entry> candidates = new ArrayList<>(node.endings.size());
+        node.endings.values().forEach(ending -> candidates.add(ending.entry()));
+        node.children.values().forEach(child -> candidates.addAll(Arrays.asList(child.top)));
+        candidates.sort(BY_RANK);
+
+        List<Entry> best = new ArrayList<>(Math.min(candidates.size(), MAX_SUGGESTIONS));
+        Set<Long> seen = new HashSet<>();
+        for (Entry candidate : candidates) {
+            if (best.size() == MAX_SUGGESTIONS) break;
+            if (seen.add(candidate.productId())) best.add(candidate);
+        }
+        node.top = best.toArray(Entry[]::new);
+    }
+
+    private static Entry entryOf(Product product) {
+        int stock = product.getStockQuantity() == null ? 0 : product.getStockQuantity();
+        return new Entry(product.getId(), product.getName(), stock);
+    }
+
+    private static List<String> termsOf(Product product) {
+        if (!Boolean.TRUE.equals(product.getActive()) || product.getName() == null) return List.of();
+
+        String[] words = NON_WORD.split(normalize(product.getName()));
+        List<String> productTerms = new ArrayList<>(words.length);
+        for (int i = 0; i < words.length; i++) {
+            if (words[i].isEmpty()) continue;
+            productTerms.add(String.join(" ", Arrays.copyOfRange(words, i, words.length)).strip());
+        }
+        return productTerms;
+    }
+
+    private static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .strip();
+    }
+}
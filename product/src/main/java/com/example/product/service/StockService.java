@@ -0,0 +1,124 @@
+package com.example.product.service;
+
+import com.example.product.dtos.StockReservationRequest;
+import com.example.product.events.StockChangedEvent;
+import com.example.product.exceptions.InsufficientStockException;
+import com.example.product.exceptions.StockUnavailableException;
+import com.example.product.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Service
+public class StockService {
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private HotStockManager hotStockManager;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    //all or nothing: hot products are granted from memory, the rest with one conditional decrement each
+    public void reserveStock(List<StockReservationRequest> items) {
+        Map<Long, Integer> quantities = quantitiesById(items);
+        Map<Long, Integer> hot = new TreeMap<>();
+        Map<Long, Integer> cold = new TreeMap<>();
+        quantities.forEach((productId, quantity) ->
+                (hotStockManager.isHot(productId) ? hot : cold).put(productId, quantity));
+
+        //a short hot product fails here, before anything touched the database
+        Map<Long, CompletableFuture<Void>> hotGrants = hot.isEmpty() ? Map.of() : hotStockManager.reserve(hot);
+        try {
+            if (!cold.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> cold.forEach((productId, quantity) -> {
+                    if (productRepository.reserveStock(productId, quantity) == 0) {
+                        throw new InsufficientStockException(productId);
+                    }
+                }));
+            }
+        } catch (RuntimeException e) {
+            //only grants a flush committed reached the table, one rejected by settlement has nothing to give back
+            awaitHotGrants(hotGrants, hot).committed().forEach(hotStockManager::release);
+            throw e;
+        }
+
+        HotGrantOutcome outcome = awaitHotGrants(hotGrants, hot);
+        if (outcome.failedProductId() == null) {
+            eventPublisher.publishEvent(stockChanged(quantities, -1));
+            return;
+        }
+
+        outcome.committed().forEach(hotStockManager::release);
+        releaseInDatabase(cold);
+        if (outcome.failure() instanceof InsufficientStockException) {
+            throw new InsufficientStockException(outcome.failedProductId());
+        }
+        throw new StockUnavailableException(outcome.failedProductId(), outcome.failure());
+    }
+
+    public void releaseStock(List<StockReservationRequest> items) {
+        Map<Long, Integer> quantities = quantitiesById(items);
+        Map<Long, Integer> cold = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            if (hotStockManager.isHot(productId)) hotStockManager.release(productId, quantity);
+            else cold.put(productId, quantity);
+        });
+        releaseInDatabase(cold);
+        eventPublisher.publishEvent(stockChanged(quantities, 1));
+    }
+
+    private record HotGrantOutcome(Map<Long, Integer> committed, Long failedProductId, Throwable failure) {
+    }
+
+    //waits for every flush carrying one of the grants, failedProductId is null when all committed
+    private HotGrantOutcome awaitHotGrants(Map<Long, CompletableFuture<Void>> hotGrants, Map<Long, Integer> hot) {
+        Long failedProductId = null;
+        Throwable failure = null;
+        Map<Long, Integer> committed = new TreeMap<>();
+        for (Map.Entry<Long, CompletableFuture<Void>> grant : hotGrants.entrySet()) {
+            try {
+                grant.getValue().join();
+                committed.put(grant.getKey(), hot.get(grant.getKey()));
+            } catch (CompletionException e) {
+                //a database failure wins over a shortage, the buyer should retry rather than give up
+                if (failure == null || failure instanceof InsufficientStockException) {
+                    failedProductId = grant.getKey();
+                    failure = e.getCause();
+                }
+            }
+        }
+        return new HotGrantOutcome(committed, failedProductId, failure);
+    }
+
+    private void releaseInDatabase(Map<Long, Integer> quantities) {
+        if (quantities.isEmpty()) return;
+        transactionTemplate.executeWithoutResult(status -> quantities.forEach(productRepository::releaseStock));
+    }
+
+    private static StockChangedEvent stockChanged(Map<Long, Integer> quantities, int sign) {
+        Map<Long, Integer> changes = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> changes.put(productId, sign * quantity));
+        return new StockChangedEvent(changes);
+    }
+
+    //merges duplicate lines and orders by id so concurrent carts lock rows in the same order
+    private static Map<Long, Integer> quantitiesById(List<StockReservationRequest> items) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (StockReservationRequest item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each item needs a product id and a positive quantity");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.product.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+//stock split across independently CAS-ed stripes so concurrent buyers of one product rarely collide
+public class StripedStockCounter {
+    //one stripe per 64 byte cache line
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    public StripedStockCounter(long initial, int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, initial / stripes + (i < initial % stripes ? 1 : 0));
+        }
+    }
+
+    //never goes below zero, a request larger than one stripe gathers from the others or gives everything back
+    public boolean tryAcquire(long quantity) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+        long taken = take(start, quantity);
+        if (taken == quantity) return true;
+
+        long[] takenByStripe = new long[stripes];
+        takenByStripe[start] = taken;
+        long needed = quantity - taken;
+        for (int i = 1; i < stripes && needed > 0; i++) {
+            int stripe = (start + i) % stripes;
+            long got = take(stripe, needed);
+            takenByStripe[stripe] = got;
+            needed -= got;
+        }
+        if (needed == 0) return true;
+
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            if (takenByStripe[stripe] > 0) cells.addAndGet(stripe * PADDING, takenByStripe[stripe]);
+        }
+        return false;
+    }
+
+    public void release(long quantity) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+    }
+
+    public long available() {
+        long sum = 0;
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            sum += cells.get(stripe * PADDING);
+        }
+        return sum;
+    }
+
+    //moves stock in or out, removing more than is available empties the counter
+    public void adjust(long delta) {
+        if (delta >= 0) {
+            release(delta);
+            return;
+        }
+        long needed = -delta;
+        for (int stripe = 0; stripe < stripes && needed > 0; stripe++) {
+            needed -= take(stripe, needed);
+        }
+    }
+
+    //evens out the richest and the poorest stripe so single-stripe acquires keep succeeding
+    public void rebalance() {
+        int richest = 0;
+        int poorest = 0;
+        for (int stripe = 1; stripe < stripes; stripe++) {
+            long value = cells.get(stripe * PADDING);
+            if (value > cells.get(richest * PADDING)) richest = stripe;
+            if (value < cells.get(poorest * PADDING)) poorest = stripe;
+        }
+        long surplus = (cells.get(richest * PADDING) - cells.get(poorest * PADDING)) / 2;
+        if (surplus <= 0) return;
+        long moved = take(richest, surplus);
+        if (moved > 0) cells.addAndGet(poorest * PADDING, moved);
+    }
+
+    private long take(int stripe, long max) {
+        int index = stripe * PADDING;
+        while (true) {
+            long current = cells.get(index);
+            if (current <= 0) return 0;
+            long amount = Math.min(current, max);
+            if (cells.compareAndSet(index, current, current - amount)) return amount;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.product.controller;
+
+import com.example.product.model.Product;
+import com.example.product.service.ProductService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductControllerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @InjectMocks
+    private ProductController productController;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productController, "objectMapper", objectMapper);
+    }
+
+    @DisplayName("Stream Products - One JSON Object Per Line")
+    @Test
+    void test_When_Stream_Products_Then_Ndjson() throws Exception {
+
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            consumer.accept(getMockProduct(1L, "iPhone"));
+            consumer.accept(getMockProduct(2L, "Pixel"));
+            return null;
+        }).when(productService).streamActiveProducts(any());
+
+        ResponseEntity<StreamingResponseBody> response = productController.streamProducts();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(1L, first.get("id").asLong());
+        assertEquals("iPhone", first.get("name").asText());
+        assertEquals("Pixel", objectMapper.readTree(lines[1]).get("name").asText());
+        assertTrue(output.toString(StandardCharsets.UTF_8).endsWith("\n"));
+    }
+
+    @DisplayName("Stream Products - Nothing Active, Empty Body")
+    @Test
+    void test_When_No_Active_Products_Then_Empty_Stream() throws Exception {
+
+        ResponseEntity<StreamingResponseBody> response = productController.streamProducts();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        response.getBody().writeTo(output);
+
+        verify(productService).streamActiveProducts(any());
+        assertEquals(0, output.size());
+    }
+
+    @DisplayName("Stream Products - Client Gone, Stream Aborted")
+    @Test
+    void test_When_Client_Disconnects_Then_Stream_Aborted() {
+
+        doAnswer(invocation -> {
+            Consumer<Product> consumer = invocation.getArgument(0);
+            consumer.accept(getMockProduct(1L, "iPhone"));
+            return null;
+        }).when(productService).streamActiveProducts(any());
+
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(UncheckedIOException.class, () -> productController.streamProducts().getBody().writeTo(closed));
+    }
+
+    private Product getMockProduct(Long id, String name) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setCategory("Mobile");
+        product.setDescription("Phone");
+        product.setPrice(BigDecimal.valueOf(1000));
+        product.setStockQuantity(10);
+        product.setActive(true);
+        product.setImageUrl("img.jpg");
+        return product;
+    }
+}
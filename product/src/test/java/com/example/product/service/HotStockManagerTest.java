@@ -0,0 +1,174 @@
+package com.example.product.service;
+
+import com.example.product.events.ProductChangedEvent;
+import com.example.product.exceptions.InsufficientStockException;
+import com.example.product.model.Product;
+import com.example.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotStockManagerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private HotStockManager hotStockManager;
+
+    @BeforeEach
+    void setUp() {
+        //run transactional callbacks inline
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(null);
+        });
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        ReflectionTestUtils.setField(hotStockManager, "stripes", 4);
+        when(productRepository.findByHotSkuTrueAndActiveTrue()).thenReturn(List.of(hotProduct(10)));
+        hotStockManager.load();
+    }
+
+    @DisplayName("Flush - Grants Written In One Statement, Then Acknowledged")
+    @Test
+    void test_When_Flush_Succeeds_Then_Grants_Acknowledged() {
+
+        CompletableFuture<Void> first = hotStockManager.reserve(Map.of(1L, 3)).get(1L);
+        CompletableFuture<Void> second = hotStockManager.reserve(Map.of(1L, 2)).get(1L);
+        assertFalse(first.isDone());
+
+        when(productRepository.reserveStock(1L, 5)).thenReturn(1);
+        hotStockManager.flush();
+
+        verify(productRepository, times(1)).reserveStock(anyLong(), anyInt());
+        assertDoesNotThrow(() -> first.join());
+        assertDoesNotThrow(() -> second.join());
+    }
+
+    @DisplayName("Flush - Releases Netted Against Reservations")
+    @Test
+    void test_When_Reserve_And_Release_Then_Net_Change_Flushed() {
+
+        hotStockManager.reserve(Map.of(1L, 3));
+        hotStockManager.release(1L, 1);
+
+        when(productRepository.reserveStock(1L, 2)).thenReturn(1);
+        hotStockManager.flush();
+
+        verify(productRepository).reserveStock(1L, 2);
+        verify(productRepository, never()).releaseStock(anyLong(), anyInt());
+    }
+
+    @DisplayName("Flush - Database Error Fails The Grants With The Cause, Memory Reloaded")
+    @Test
+    void test_When_Flush_Fails_On_Database_Then_Grants_Fail_And_Reconcile() {
+
+        CompletableFuture<Void> grant = hotStockManager.reserve(Map.of(1L, 3)).get(1L);
+
+        when(productRepository.reserveStock(1L, 3))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(10));
+        hotStockManager.flush();
+
+        CompletionException exception = assertThrows(CompletionException.class, grant::join);
+        assertInstanceOf(DataAccessResourceFailureException.class, exception.getCause());
+        //the stock promised by the failed grant is available again
+        assertDoesNotThrow(() -> hotStockManager.reserve(Map.of(1L, 10)));
+    }
+
+    @DisplayName("Flush - Table Short, Buyers Settled One At A Time")
+    @Test
+    void test_When_Batch_Rejected_Then_Settle_Each_Line() {
+
+        CompletableFuture<Void> small = hotStockManager.reserve(Map.of(1L, 3)).get(1L);
+        CompletableFuture<Void> large = hotStockManager.reserve(Map.of(1L, 4)).get(1L);
+
+        //the table only has 5 left, e.g. another instance sold some
+        when(productRepository.reserveStock(1L, 7)).thenReturn(0);
+        when(productRepository.reserveStock(1L, 3)).thenReturn(1);
+        when(productRepository.reserveStock(1L, 4)).thenReturn(0);
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(2));
+        hotStockManager.flush();
+
+        assertDoesNotThrow(() -> small.join());
+        CompletionException exception = assertThrows(CompletionException.class, large::join);
+        assertInstanceOf(InsufficientStockException.class, exception.getCause());
+        //memory follows the table after the shortage
+        assertThrows(InsufficientStockException.class, () -> hotStockManager.reserve(Map.of(1L, 3)));
+        assertDoesNotThrow(() -> hotStockManager.reserve(Map.of(1L, 2)));
+    }
+
+    @DisplayName("Reconcile - Memory Follows Changes Made Directly In The Table")
+    @Test
+    void test_When_Reconcile_Then_Memory_Matches_Table() {
+
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(4));
+
+        hotStockManager.scheduleReconcile();
+        hotStockManager.flush();
+
+        verify(productRepository, never()).reserveStock(anyLong(), anyInt());
+        assertThrows(InsufficientStockException.class, () -> hotStockManager.reserve(Map.of(1L, 5)));
+        assertDoesNotThrow(() -> hotStockManager.reserve(Map.of(1L, 4)));
+    }
+
+    @DisplayName("Product No Longer Hot - Pending Grants Still Flushed")
+    @Test
+    void test_When_Product_Retired_Then_Pending_Flushed_And_New_Requests_Refused() {
+
+        CompletableFuture<Void> grant = hotStockManager.reserve(Map.of(1L, 2)).get(1L);
+        Product product = hotProduct(8);
+        product.setHotSku(false);
+        hotStockManager.onProductChanged(new ProductChangedEvent(product, ProductChangedEvent.ChangeType.UPDATED));
+
+        assertFalse(hotStockManager.isHot(1L));
+        assertThrows(InsufficientStockException.class, () -> hotStockManager.reserve(Map.of(1L, 1)));
+
+        when(productRepository.reserveStock(1L, 2)).thenReturn(1);
+        when(productRepository.findStockQuantityById(1L)).thenReturn(Optional.of(8));
+        hotStockManager.flush();
+
+        assertDoesNotThrow(() -> grant.join());
+    }
+
+    private static Product hotProduct(int stock) {
+        Product product = new Product();
+        product.setId(1L);
+        product.setName("iPhone");
+        product.setStockQuantity(stock);
+        product.setActive(true);
+        product.setHotSku(true);
+        return product;
+    }
+}
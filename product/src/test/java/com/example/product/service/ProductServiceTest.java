@@ -1,5 +1,6 @@
 package com.example.product.service;
 
+import com.example.product.events.ProductChangedEvent;
 import com.example.product.model.Product;
 import com.example.product.repository.ProductRepository;
 import org.junit.jupiter.api.DisplayName;
@@ -8,13 +9,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -24,6 +29,9 @@ class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProductService productService;
 
@@ -70,6 +78,7 @@ class ProductServiceTest {
         assertTrue(result.isPresent());
         assertEquals("iPhone Pro", result.get().getName());
         verify(productRepository).save(any(Product.class));
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
     }
 
     @DisplayName("Update Product - Not Found")
@@ -83,24 +92,90 @@ class ProductServiceTest {
                 productService.updateProduct(1L, getMockProduct());
 
         verify(productRepository, never()).save(any());
+        verify(eventPublisher, never()).publishEvent(any(ProductChangedEvent.class));
         assertTrue(result.isEmpty());
     }
 
-    /* ---------------- GET ALL PRODUCTS ----------------*/
+    @DisplayName("Update Product - PUT Without hotSku Keeps The Flag")
+    @Test
+    void test_When_Update_Without_Hot_Sku_Then_Flag_Kept() {
+
+        Product existingProduct = getMockProduct();
+        existingProduct.setHotSku(true);
+
+        Product update = getMockProduct();
+        update.setPrice(BigDecimal.valueOf(900));
+
+        when(productRepository.findById(anyLong()))
+                .thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(any(Product.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Optional<Product> result = productService.updateProduct(1L, update);
+
+        assertTrue(result.isPresent());
+        assertTrue(result.get().getHotSku());
+        assertEquals(BigDecimal.valueOf(900), result.get().getPrice());
+    }
+
+    @DisplayName("Update Product - Explicit hotSku false Clears The Flag")
+    @Test
+    void test_When_Update_With_Hot_Sku_False_Then_Flag_Cleared() {
+
+        Product existingProduct = getMockProduct();
+        existingProduct.setHotSku(true);
+
+        Product update = getMockProduct();
+        update.setHotSku(false);
+
+        when(productRepository.findById(anyLong()))
+                .thenReturn(Optional.of(existingProduct));
+        when(productRepository.save(any(Product.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        assertFalse(productService.updateProduct(1L, update).orElseThrow().getHotSku());
+    }
+
+    @DisplayName("Create Product - hotSku Defaults To False")
+    @Test
+    void test_When_Create_Without_Hot_Sku_Then_False() {
+
+        when(productRepository.save(any(Product.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        Product savedProduct = productService.createProduct(getMockProduct());
+
+        assertFalse(savedProduct.getHotSku());
+    }
+
+    /* ---------------- GET PRODUCTS PAGE ----------------*/
 
-    @DisplayName("Get All Active Products - Success")
+    @DisplayName("Get Active Products Page - First Page")
     @Test
-    void test_When_Get_All_Products_Success() {
+    void test_When_Get_First_Products_Page_Success() {
 
-        when(productRepository.findByActiveTrue())
+        when(productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
                 .thenReturn(List.of(getMockProduct(), getMockProduct()));
 
-        List<Product> products = productService.getAllProducts();
+        List<Product> products = productService.getProducts(null, 2);
 
-        verify(productRepository).findByActiveTrue();
+        verify(productRepository).findByActiveTrueAndIdGreaterThanOrderByIdAsc(eq(0L), argThat(limit -> limit.max() == 2));
         assertEquals(2, products.size());
     }
 
+    @DisplayName("Get Active Products Page - After Cursor")
+    @Test
+    void test_When_Get_Products_Page_After_Cursor_Success() {
+
+        when(productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class)))
+                .thenReturn(List.of(getMockProduct()));
+
+        List<Product> products = productService.getProducts(41L, 10);
+
+        verify(productRepository).findByActiveTrueAndIdGreaterThanOrderByIdAsc(eq(41L), argThat(limit -> limit.max() == 10));
+        assertEquals(1, products.size());
+    }
+
     /* ---------------- DELETE PRODUCT (SOFT DELETE) ----------------*/
 
     @DisplayName("Delete Product - Success (Soft Delete)")
@@ -116,6 +191,7 @@ class ProductServiceTest {
         boolean result = productService.deleteProduct(1L);
 
         verify(productRepository).save(product);
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
         assertFalse(product.getActive());
         assertTrue(result);
     }
@@ -139,15 +215,34 @@ class ProductServiceTest {
     @Test
     void test_When_Search_Product_Success() {
 
-        when(productRepository.searchProducts(anyString()))
+        when(productRepository.searchProducts(anyString(), anyInt(), anyLong()))
                 .thenReturn(List.of(getMockProduct()));
 
-        List<Product> products = productService.searchProducts("iphone");
+        List<Product> products = productService.searchProducts("iPhone  Pro!", 2, 20);
 
-        verify(productRepository).searchProducts(anyString());
+        verify(productRepository).searchProducts("iphone:* & pro:*", 20, 40);
         assertEquals(1, products.size());
     }
 
+    @DisplayName("Search Products - Large Page, Offset Does Not Overflow")
+    @Test
+    void test_When_Search_Large_Page_Then_Long_Offset() {
+
+        productService.searchProducts("iphone", Integer.MAX_VALUE, 100);
+
+        verify(productRepository).searchProducts("iphone:*", 100, Integer.MAX_VALUE * 100L);
+    }
+
+    @DisplayName("Search Products - Keyword Without Words")
+    @Test
+    void test_When_Search_Keyword_Has_No_Words() {
+
+        List<Product> products = productService.searchProducts(" ':*& ", 0, 20);
+
+        verify(productRepository, never()).searchProducts(anyString(), anyInt(), anyLong());
+        assertTrue(products.isEmpty());
+    }
+
     /* ---------------- GET PRODUCT BY ID ----------------*/
 
     @DisplayName("Get Product By ID - Success")
@@ -176,6 +271,32 @@ class ProductServiceTest {
         assertTrue(result.isEmpty());
     }
 
+    /* ---------------- GET PRODUCTS BY IDS ----------------*/
+
+    @DisplayName("Get Products By IDs - Single Query")
+    @Test
+    void test_When_Get_Products_By_Ids_Success() {
+
+        when(productRepository.findByIdInAndActiveTrue(anyCollection()))
+                .thenReturn(List.of(getMockProduct()));
+
+        List<Product> products =
+                productService.getProductsByIds(List.of("1", "1", "2"));
+
+        verify(productRepository, times(1)).findByIdInAndActiveTrue(Set.of(1L, 2L));
+        assertEquals(1, products.size());
+    }
+
+    @DisplayName("Get Products By IDs - Empty Request")
+    @Test
+    void test_When_Get_Products_By_Ids_Empty() {
+
+        List<Product> products = productService.getProductsByIds(List.of());
+
+        verify(productRepository, never()).findByIdInAndActiveTrue(anyCollection());
+        assertTrue(products.isEmpty());
+    }
+
     /* ---------------- MOCK HELPER ----------------*/
 
     private Product getMockProduct() {
@@ -0,0 +1,107 @@
+package com.example.product.service;
+
+import com.example.product.dtos.ProductSuggestion;
+import com.example.product.events.ProductChangedEvent;
+import com.example.product.events.StockChangedEvent;
+import com.example.product.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSuggestionIndexTest {
+
+    private ProductSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSuggestionIndex();
+        index.onProductChanged(created(getMockProduct(1L, "iPhone 15 Pro", 5)));
+        index.onProductChanged(created(getMockProduct(2L, "iPad Air", 50)));
+        index.onProductChanged(created(getMockProduct(3L, "Pixel Pro", 20)));
+        index.onProductChanged(created(getMockProduct(4L, "Crème Brûlée Torch", 1)));
+    }
+
+    @DisplayName("Suggest - Ranked By Stock")
+    @Test
+    void test_When_Prefix_Matches_Then_Ranked_By_Stock() {
+
+        List<ProductSuggestion> suggestions = index.suggest("IP", 10);
+
+        assertEquals(List.of(2L, 1L), suggestions.stream().map(ProductSuggestion::id).toList());
+    }
+
+    @DisplayName("Suggest - Matches Any Word Of The Name")
+    @Test
+    void test_When_Prefix_Matches_Later_Word() {
+
+        List<ProductSuggestion> suggestions = index.suggest("pro", 10);
+
+        assertEquals(List.of(3L, 1L), suggestions.stream().map(ProductSuggestion::id).toList());
+    }
+
+    @DisplayName("Suggest - Limit And Accents")
+    @Test
+    void test_When_Limit_And_Accents() {
+
+        assertEquals(1, index.suggest("i", 1).size());
+        assertEquals(4L, index.suggest("creme b", 10).getFirst().id());
+    }
+
+    @DisplayName("Suggest - Updated And Deleted Products")
+    @Test
+    void test_When_Product_Changes_Then_Index_Follows() {
+
+        index.onProductChanged(new ProductChangedEvent(getMockProduct(2L, "Galaxy Tab", 50),
+                ProductChangedEvent.ChangeType.UPDATED));
+        Product deleted = getMockProduct(1L, "iPhone 15 Pro", 5);
+        deleted.setActive(false);
+        index.onProductChanged(new ProductChangedEvent(deleted, ProductChangedEvent.ChangeType.DELETED));
+
+        assertTrue(index.suggest("ip", 10).isEmpty());
+        assertEquals(2L, index.suggest("gal", 10).getFirst().id());
+    }
+
+    @DisplayName("Suggest - Ranking Follows Reservations And Releases")
+    @Test
+    void test_When_Stock_Changes_Then_Ranking_Follows() {
+
+        index.onStockChanged(new StockChangedEvent(Map.of(2L, -48)));
+        assertEquals(List.of(1L, 2L), index.suggest("ip", 10).stream().map(ProductSuggestion::id).toList());
+
+        index.onStockChanged(new StockChangedEvent(Map.of(1L, 2, 2L, 10)));
+        assertEquals(List.of(2L, 1L), index.suggest("ip", 10).stream().map(ProductSuggestion::id).toList());
+    }
+
+    @DisplayName("Suggest - Best Products Of A Broad Prefix")
+    @Test
+    void test_When_More_Matches_Than_Kept_Then_Best_Returned() {
+
+        for (long id = 100; id < 200; id++) {
+            index.onProductChanged(created(getMockProduct(id, "Widget " + id, (int) id)));
+        }
+        index.onProductChanged(new ProductChangedEvent(getMockProduct(199L, "Widget 199", 0),
+                ProductChangedEvent.ChangeType.UPDATED));
+
+        assertEquals(List.of(198L, 197L, 196L), index.suggest("w", 3).stream().map(ProductSuggestion::id).toList());
+        assertEquals(List.of(198L, 197L), index.suggest("widget 1", 2).stream().map(ProductSuggestion::id).toList());
+        assertEquals(List.of(150L), index.suggest("widget 150", 10).stream().map(ProductSuggestion::id).toList());
+    }
+
+    private ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(product, ProductChangedEvent.ChangeType.CREATED);
+    }
+
+    private Product getMockProduct(Long id, String name, int stock) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setStockQuantity(stock);
+        product.setActive(true);
+        return product;
+    }
+}
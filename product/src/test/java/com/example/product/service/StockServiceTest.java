@@ -0,0 +1,207 @@
+package com.example.product.service;
+
+import com.example.product.dtos.StockReservationRequest;
+import com.example.product.events.StockChangedEvent;
+import com.example.product.exceptions.InsufficientStockException;
+import com.example.product.exceptions.StockUnavailableException;
+import com.example.product.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private HotStockManager hotStockManager;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private StockService stockService;
+
+    @BeforeEach
+    void setUp() {
+        //run transactional callbacks inline
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @DisplayName("Reserve Stock - Success (Merged And Ordered By Id)")
+    @Test
+    void test_When_Reserve_Stock_Success() {
+
+        when(productRepository.reserveStock(anyLong(), anyInt()))
+                .thenReturn(1);
+
+        stockService.reserveStock(List.of(
+                new StockReservationRequest(2L, 1),
+                new StockReservationRequest(1L, 2),
+                new StockReservationRequest(2L, 3)));
+
+        InOrder inOrder = inOrder(productRepository);
+        inOrder.verify(productRepository).reserveStock(1L, 2);
+        inOrder.verify(productRepository).reserveStock(2L, 4);
+        verifyNoMoreInteractions(productRepository);
+        verify(eventPublisher).publishEvent(new StockChangedEvent(Map.of(1L, -2, 2L, -4)));
+    }
+
+    @DisplayName("Reserve Stock - Failure (Insufficient Stock)")
+    @Test
+    void test_When_Reserve_Stock_Insufficient_then_Fail() {
+
+        when(productRepository.reserveStock(1L, 2)).thenReturn(1);
+        when(productRepository.reserveStock(2L, 5)).thenReturn(0);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> stockService.reserveStock(List.of(
+                        new StockReservationRequest(1L, 2),
+                        new StockReservationRequest(2L, 5))));
+
+        assertEquals(2L, exception.getProductId());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @DisplayName("Reserve Stock - Failure (Invalid Quantity)")
+    @Test
+    void test_When_Reserve_Stock_Invalid_Quantity_then_Fail() {
+
+        assertThrows(IllegalArgumentException.class,
+                () -> stockService.reserveStock(List.of(new StockReservationRequest(1L, 0))));
+
+        verify(productRepository, never()).reserveStock(anyLong(), anyInt());
+    }
+
+    @DisplayName("Release Stock - Success")
+    @Test
+    void test_When_Release_Stock_Success() {
+
+        stockService.releaseStock(List.of(new StockReservationRequest(1L, 2)));
+
+        verify(productRepository).releaseStock(1L, 2);
+        verify(eventPublisher).publishEvent(new StockChangedEvent(Map.of(1L, 2)));
+    }
+
+    /* ---------------- HOT PRODUCTS ---------------- */
+
+    @DisplayName("Reserve Stock - Hot Product Served From Memory")
+    @Test
+    void test_When_Reserve_Hot_Product_Success() {
+
+        when(hotStockManager.isHot(1L)).thenReturn(true);
+        when(hotStockManager.reserve(Map.of(1L, 2)))
+                .thenReturn(Map.of(1L, CompletableFuture.completedFuture(null)));
+        when(productRepository.reserveStock(2L, 1)).thenReturn(1);
+
+        stockService.reserveStock(List.of(
+                new StockReservationRequest(1L, 2),
+                new StockReservationRequest(2L, 1)));
+
+        verify(productRepository, never()).reserveStock(eq(1L), anyInt());
+        verify(hotStockManager, never()).release(anyLong(), anyInt());
+    }
+
+    @DisplayName("Reserve Stock - Cold Product Short, Hot Grant Released")
+    @Test
+    void test_When_Cold_Product_Short_then_Release_Hot_Grant() {
+
+        when(hotStockManager.isHot(1L)).thenReturn(true);
+        when(hotStockManager.reserve(Map.of(1L, 2)))
+                .thenReturn(Map.of(1L, CompletableFuture.completedFuture(null)));
+        when(productRepository.reserveStock(2L, 1)).thenReturn(0);
+
+        assertThrows(InsufficientStockException.class,
+                () -> stockService.reserveStock(List.of(
+                        new StockReservationRequest(1L, 2),
+                        new StockReservationRequest(2L, 1))));
+
+        verify(hotStockManager).release(1L, 2);
+    }
+
+    @DisplayName("Reserve Stock - Cold Product Short, Hot Grant Rejected By Flush Not Released")
+    @Test
+    void test_When_Cold_Product_Short_And_Hot_Grant_Rejected_then_Nothing_Released() {
+
+        when(hotStockManager.isHot(1L)).thenReturn(true);
+        when(hotStockManager.reserve(Map.of(1L, 2)))
+                .thenReturn(Map.of(1L, CompletableFuture.failedFuture(new InsufficientStockException(1L))));
+        when(productRepository.reserveStock(2L, 1)).thenReturn(0);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> stockService.reserveStock(List.of(
+                        new StockReservationRequest(1L, 2),
+                        new StockReservationRequest(2L, 1))));
+
+        assertEquals(2L, exception.getProductId());
+        verify(hotStockManager, never()).release(anyLong(), anyInt());
+    }
+
+    @DisplayName("Reserve Stock - Hot Flush Rejected, Cold Stock Released")
+    @Test
+    void test_When_Hot_Flush_Rejected_then_Release_Cold_Stock() {
+
+        when(hotStockManager.isHot(1L)).thenReturn(true);
+        when(hotStockManager.reserve(Map.of(1L, 2)))
+                .thenReturn(Map.of(1L, CompletableFuture.failedFuture(new InsufficientStockException(1L))));
+        when(productRepository.reserveStock(2L, 1)).thenReturn(1);
+
+        InsufficientStockException exception = assertThrows(InsufficientStockException.class,
+                () -> stockService.reserveStock(List.of(
+                        new StockReservationRequest(1L, 2),
+                        new StockReservationRequest(2L, 1))));
+
+        assertEquals(1L, exception.getProductId());
+        verify(productRepository).releaseStock(2L, 1);
+        verify(hotStockManager, never()).release(anyLong(), anyInt());
+    }
+
+    @DisplayName("Reserve Stock - Hot Flush Failed By Database, 503 Not 409")
+    @Test
+    void test_When_Hot_Flush_Fails_On_Database_then_Stock_Unavailable() {
+
+        when(hotStockManager.isHot(1L)).thenReturn(true);
+        when(hotStockManager.reserve(Map.of(1L, 2)))
+                .thenReturn(Map.of(1L, CompletableFuture.failedFuture(
+                        new DataAccessResourceFailureException("connection refused"))));
+        when(productRepository.reserveStock(2L, 1)).thenReturn(1);
+
+        StockUnavailableException exception = assertThrows(StockUnavailableException.class,
+                () -> stockService.reserveStock(List.of(
+                        new StockReservationRequest(1L, 2),
+                        new StockReservationRequest(2L, 1))));
+
+        assertEquals(1L, exception.getProductId());
+        assertInstanceOf(DataAccessResourceFailureException.class, exception.getCause());
+        verify(productRepository).releaseStock(2L, 1);
+    }
+}
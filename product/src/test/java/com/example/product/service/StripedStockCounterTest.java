@@ -0,0 +1,70 @@
+package com.example.product.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedStockCounterTest {
+
+    @DisplayName("Acquire - Gathers Across Stripes")
+    @Test
+    void test_When_Request_Larger_Than_Stripe_Then_Gather() {
+
+        StripedStockCounter counter = new StripedStockCounter(10, 4);
+
+        assertTrue(counter.tryAcquire(7));
+        assertEquals(3, counter.available());
+        assertFalse(counter.tryAcquire(4));
+        assertEquals(3, counter.available());
+    }
+
+    @DisplayName("Acquire - Never Oversells Under Contention")
+    @Test
+    void test_When_Concurrent_Buyers_Then_Never_Oversell() throws Exception {
+
+        StripedStockCounter counter = new StripedStockCounter(1_000, 8);
+        AtomicLong sold = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService buyers = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 8; i++) {
+            buyers.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int j = 0; j < 500; j++) {
+                    if (counter.tryAcquire(1 + j % 3)) sold.addAndGet(1 + j % 3);
+                }
+            });
+        }
+        start.countDown();
+        buyers.shutdown();
+        assertTrue(buyers.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1_000, sold.get() + counter.available());
+        assertTrue(counter.available() >= 0);
+    }
+
+    @DisplayName("Adjust And Rebalance - Total Preserved")
+    @Test
+    void test_When_Adjust_And_Rebalance_Then_Total_Preserved() {
+
+        StripedStockCounter counter = new StripedStockCounter(8, 4);
+        counter.adjust(-6);
+        assertEquals(2, counter.available());
+        counter.adjust(-10);
+        assertEquals(0, counter.available());
+        counter.adjust(9);
+        counter.rebalance();
+        assertEquals(9, counter.available());
+    }
+}
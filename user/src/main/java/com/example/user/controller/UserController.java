@@ -27,6 +27,14 @@ public class UserController {
                 .orElseGet(()->ResponseEntity.notFound().build());
     }
 
+    //existence check without loading the user and its address
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> userExists(@PathVariable Long id){
+        return userService.userExists(id)
+                ? ResponseEntity.ok().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @PostMapping
     public ResponseEntity<String> createUser(@RequestBody User user){
         userService.addUser(user);
@@ -25,6 +25,10 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    public boolean userExists(Long id) {
+        return userRepository.existsById(id);
+    }
+
     public boolean updateUser(Long id, User updatedUser){
         return userRepository.findById(id)
                 .map(existingUser->{
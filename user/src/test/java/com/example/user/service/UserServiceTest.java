@@ -101,6 +101,29 @@ class UserServiceTest {
         verify(userRepository).findById(anyLong());
     }
 
+    /* ---------------- USER EXISTS ---------------- */
+
+    @DisplayName("User Exists - Found")
+    @Test
+    void test_When_User_Exists() {
+
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(true);
+
+        assertTrue(userService.userExists(1L));
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @DisplayName("User Exists - Not Found")
+    @Test
+    void test_When_User_Does_Not_Exist() {
+
+        when(userRepository.existsById(anyLong()))
+                .thenReturn(false);
+
+        assertFalse(userService.userExists(1L));
+    }
+
     /* ---------------- UPDATE USER ---------------- */
 
     @DisplayName("Update User - Success")